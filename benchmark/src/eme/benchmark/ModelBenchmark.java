@@ -0,0 +1,195 @@
+package eme.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EDataType;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceFactoryImpl;
+
+import eme.generator.EcoreMetamodelGenerator;
+import eme.generator.GeneratedEcoreMetamodel;
+import eme.generator.hierarchies.ExternalTypeHierarchy;
+import eme.model.IntermediateModel;
+import eme.properties.BinaryProperty;
+import eme.properties.ExtractionProperties;
+
+/**
+ * Micro benchmarks for the hot paths that do not need an Eclipse workspace: lookups in the {@link IntermediateModel},
+ * the metamodel generation with and without bulk generation, the generation of multiple variants, the sorting of
+ * package hierarchies and the serialization of the generated metamodel. Every benchmark runs on synthetic models of
+ * the {@link SyntheticModelBuilder}, first in warmup iterations and then in measured iterations. The results are
+ * printed as one line per benchmark and shape, which can be compared between builds and between machines with
+ * different numbers of cores. The last shape has deeply nested generic fields. Usage:
+ * <code>ModelBenchmark [warmupIterations] [measuredIterations]</code>.
+ * @author Timur Saglam
+ */
+public final class ModelBenchmark {
+    private static final double NANOS_PER_MILLI = 1000000.0;
+    private static volatile long sink; // consumes results, prevents dead code elimination
+    private final int measuredIterations;
+    private final ExtractionProperties properties;
+    private final int warmupIterations;
+
+    /**
+     * Basic constructor.
+     * @param warmupIterations is the number of iterations that are not measured.
+     * @param measuredIterations is the number of measured iterations.
+     */
+    public ModelBenchmark(int warmupIterations, int measuredIterations) {
+        this.warmupIterations = warmupIterations;
+        this.measuredIterations = measuredIterations;
+        properties = ExtractionProperties.createDefaults();
+        properties.set(BinaryProperty.NESTED_TYPES, true);
+    }
+
+    /**
+     * Runs all benchmarks on a synthetic model shape.
+     * @param shape is the configured {@link SyntheticModelBuilder}.
+     */
+    public void run(SyntheticModelBuilder shape) {
+        System.out.println(shape);
+        IntermediateModel model = shape.build("Benchmark");
+        List<String> typeNames = shape.buildTypeNames();
+        EcoreMetamodelGenerator generator = new EcoreMetamodelGenerator(properties);
+        measure("build", () -> shape.build("Benchmark").getTypes().size());
+        measure("lookup", () -> lookup(model, typeNames));
+        measure("generate", () -> generator.generateMetamodel(model).getRoot().getESubpackages().size());
+        ExtractionProperties bulkProperties = properties.snapshot();
+        bulkProperties.set(BinaryProperty.BULK_GENERATION, true);
+        EcoreMetamodelGenerator bulkGenerator = new EcoreMetamodelGenerator(bulkProperties);
+        measure("bulk", () -> bulkGenerator.generateMetamodel(model).getRoot().getESubpackages().size());
+        List<ExtractionProperties> variants = createVariants();
+        measure("variants", () -> generator.generateMetamodels(model, variants).size());
+        measure("sort", () -> sortHierarchy(typeNames));
+        GeneratedEcoreMetamodel metamodel = generator.generateMetamodel(model);
+        Resource resource = createResource(metamodel.getRoot());
+        measure("serialize", () -> serialize(resource));
+    }
+
+    /**
+     * Runs the benchmarks with a small, a medium, a large and a generics-heavy shape.
+     * @param args are the optional numbers of warmup and measured iterations.
+     */
+    public static void main(String[] args) {
+        int warmup = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int measured = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        ModelBenchmark benchmark = new ModelBenchmark(warmup, measured);
+        benchmark.run(new SyntheticModelBuilder());
+        benchmark.run(new SyntheticModelBuilder().packages(20).typesPerPackage(50).genericDepth(2).innerTypesPerType(1));
+        benchmark.run(new SyntheticModelBuilder().packages(50).subpackagesPerPackage(3).typesPerPackage(50).fieldsPerType(10)
+                .methodsPerType(10).genericDepth(3).innerTypesPerType(2).externalTypes(100));
+        benchmark.run(new SyntheticModelBuilder().packages(20).typesPerPackage(50).fieldsPerType(20).genericDepth(5));
+        System.out.println("checksum=" + sink); // consumes the results
+    }
+
+    /**
+     * Creates three variants of the properties: public API only, all members and no operations.
+     */
+    private List<ExtractionProperties> createVariants() {
+        ExtractionProperties complete = properties.snapshot();
+        for (BinaryProperty property : new BinaryProperty[] { BinaryProperty.PRIVATE_FIELDS, BinaryProperty.PROTECTED_FIELDS,
+                BinaryProperty.DEFAULT_FIELDS, BinaryProperty.PRIVATE_METHODS, BinaryProperty.PROTECTED_METHODS }) {
+            complete.set(property, true);
+        }
+        ExtractionProperties noOperations = properties.snapshot();
+        noOperations.set(BinaryProperty.PUBLIC_METHODS, false);
+        noOperations.set(BinaryProperty.DEFAULT_METHODS, false);
+        return Arrays.asList(properties.snapshot(), complete, noOperations);
+    }
+
+    /**
+     * Creates a resource in a new resource set that contains an {@link EPackage}.
+     */
+    private Resource createResource(EPackage root) {
+        ResourceSetImpl resourceSet = new ResourceSetImpl();
+        resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap().put("ecore", new XMIResourceFactoryImpl());
+        Resource resource = resourceSet.createResource(URI.createURI("benchmark.ecore"));
+        resource.getContents().add(root);
+        return resource;
+    }
+
+    /**
+     * Looks up every type of the model by its name.
+     */
+    private long lookup(IntermediateModel model, List<String> typeNames) {
+        long found = 0;
+        for (String name : typeNames) {
+            if (model.getType(name) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Runs the warmup and the measured iterations of a benchmark and prints the result.
+     */
+    private void measure(String name, Benchmark benchmark) {
+        for (int i = 0; i < warmupIterations; i++) {
+            sink += benchmark.run();
+        }
+        long[] times = new long[measuredIterations];
+        for (int i = 0; i < measuredIterations; i++) {
+            long start = System.nanoTime();
+            sink += benchmark.run();
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        long total = 0;
+        for (long time : times) {
+            total += time;
+        }
+        double mean = total / (double) times.length / NANOS_PER_MILLI;
+        double median = times[times.length / 2] / NANOS_PER_MILLI;
+        double min = times[0] / NANOS_PER_MILLI;
+        System.out.println(String.format(Locale.ROOT, "  %-10s mean=%10.3fms median=%10.3fms min=%10.3fms", name, mean, median, min));
+    }
+
+    /**
+     * Serializes a resource into memory and returns the number of bytes.
+     */
+    private long serialize(Resource resource) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            resource.save(output, Collections.EMPTY_MAP);
+        } catch (IOException exception) {
+            throw new IllegalStateException("Could not serialize the metamodel.", exception);
+        }
+        return output.size();
+    }
+
+    /**
+     * Adds a data type for every type name to a new external type hierarchy and sorts the hierarchy.
+     */
+    private long sortHierarchy(List<String> typeNames) {
+        EPackage root = EcoreFactory.eINSTANCE.createEPackage();
+        root.setNsURI("benchmark");
+        ExternalTypeHierarchy hierarchy = new ExternalTypeHierarchy(root, properties);
+        for (int i = typeNames.size() - 1; i >= 0; i--) { // reverse order, the sort has to do work
+            EDataType dataType = EcoreFactory.eINSTANCE.createEDataType();
+            String typeName = typeNames.get(i);
+            dataType.setName(typeName.substring(typeName.lastIndexOf('.') + 1));
+            dataType.setInstanceTypeName(typeName);
+            hierarchy.add(dataType);
+        }
+        hierarchy.sort();
+        return root.getESubpackages().size();
+    }
+
+    /**
+     * A single benchmark operation, which returns a value that depends on its work.
+     */
+    @FunctionalInterface
+    private interface Benchmark {
+        long run();
+    }
+}
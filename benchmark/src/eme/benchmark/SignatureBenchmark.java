@@ -0,0 +1,298 @@
+package eme.benchmark;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.eclipse.jdt.core.Signature;
+
+import eme.extractor.JDTUtil;
+import eme.extractor.SignatureDecoder;
+
+/**
+ * Benchmark and equivalence check for the {@link SignatureDecoder}. The corpus contains the resolved and the unresolved
+ * type signatures of the generic API of common JRE classes and some edge cases, e.g. wildcards with array bounds and
+ * nested types of generic types. First, every signature is decoded with the decoder and with the chain of
+ * {@link Signature} calls it replaced, and the results are compared: array dimensions, simple name, erasure of
+ * unresolved names, type arguments and wildcard kinds. The only intended difference is that the decoder returns names
+ * without type arguments, which means the old simple names are compared after erasing their type arguments. Then both
+ * variants are measured. Usage: <code>SignatureBenchmark [warmupIterations] [measuredIterations]</code>.
+ * @author Timur Saglam
+ */
+public final class SignatureBenchmark {
+    private static final Class<?>[] CORPUS_CLASSES = { Object.class, String.class, Class.class, Enum.class, Iterable.class,
+            Comparable.class, ThreadLocal.class, java.util.Collection.class, java.util.List.class, java.util.ArrayList.class,
+            java.util.Map.class, java.util.HashMap.class, java.util.TreeMap.class, java.util.Set.class, java.util.Optional.class,
+            java.util.Collections.class, java.util.Arrays.class, java.util.stream.Stream.class, java.util.stream.Collectors.class,
+            java.util.function.Function.class, java.util.concurrent.CompletableFuture.class,
+            java.util.concurrent.ConcurrentHashMap.class, java.nio.file.Files.class };
+    private static final String[] EDGE_CASES = { "[[I", "*", "+[QString;", "-[[Ljava.lang.Number;", "TT;", "[TT;", "QMap.Entry;",
+            "QMap.Entry<QK;QV;>;", "QOuter<QT;>.Inner;", "QOuter<QT;>.Inner<QS;>;", "Ljava.util.Map$Entry<Ljava.lang.String;[I>;",
+            "QList<+QList<-QNumber;>;>;", "QMap<QString;[QList<*>;>;" };
+    private static final double NANOS_PER_MILLI = 1000000.0;
+    private static volatile long sink; // consumes results, prevents dead code elimination
+    private final List<String> corpus;
+    private final List<SignatureDecoder> decoders; // one reusable decoder per nesting depth
+    private final int measuredIterations;
+    private final int warmupIterations;
+
+    /**
+     * Basic constructor, builds the signature corpus.
+     * @param warmupIterations is the number of iterations that are not measured.
+     * @param measuredIterations is the number of measured iterations.
+     */
+    public SignatureBenchmark(int warmupIterations, int measuredIterations) {
+        this.warmupIterations = warmupIterations;
+        this.measuredIterations = measuredIterations;
+        decoders = new ArrayList<SignatureDecoder>();
+        corpus = buildCorpus();
+    }
+
+    /**
+     * Checks that the decoder and the call chain agree on every signature of the corpus, then measures both.
+     * @throws IllegalStateException if the results differ for a signature.
+     */
+    public void run() {
+        List<String> mismatches = new ArrayList<String>();
+        for (String signature : corpus) {
+            String expected = describeWithSignature(signature);
+            String actual = describeWithDecoder(signature, 0, signature.length(), 0);
+            if (!expected.equals(actual)) {
+                mismatches.add(signature + ": expected " + expected + " but was " + actual);
+            }
+        }
+        if (!mismatches.isEmpty()) {
+            throw new IllegalStateException("The decoder differs from the Signature calls for " + mismatches.size() + " signatures: "
+                    + mismatches);
+        }
+        System.out.println("SignatureBenchmark(signatures=" + corpus.size() + ", all equivalent)");
+        measure("signature", () -> decodeAll(false));
+        measure("decoder", () -> decodeAll(true));
+    }
+
+    /**
+     * Runs the equivalence check and the benchmark.
+     * @param args are the optional numbers of warmup and measured iterations.
+     */
+    public static void main(String[] args) {
+        int warmup = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int measured = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        new SignatureBenchmark(warmup, measured).run();
+        System.out.println("checksum=" + sink); // consumes the results
+    }
+
+    /**
+     * Builds the corpus from the generic return, parameter and field types of the corpus classes, once as resolved and
+     * once as unresolved signature, and adds the edge cases.
+     */
+    private List<String> buildCorpus() {
+        Set<String> signatures = new LinkedHashSet<String>();
+        for (Class<?> type : CORPUS_CLASSES) {
+            List<Type> types = new ArrayList<Type>();
+            for (Method method : type.getDeclaredMethods()) {
+                if (Modifier.isPublic(method.getModifiers())) {
+                    types.add(method.getGenericReturnType());
+                    types.addAll(Arrays.asList(method.getGenericParameterTypes()));
+                }
+            }
+            for (Field field : type.getDeclaredFields()) {
+                if (Modifier.isPublic(field.getModifiers())) {
+                    types.add(field.getGenericType());
+                }
+            }
+            for (Type javaType : types) {
+                if (javaType != void.class) {
+                    signatures.add(toSignature(javaType, true));
+                    signatures.add(toSignature(javaType, false));
+                }
+            }
+        }
+        signatures.addAll(Arrays.asList(EDGE_CASES));
+        return new ArrayList<String>(signatures);
+    }
+
+    /**
+     * Decodes every signature of the corpus with the decoder or the call chain.
+     */
+    private long decodeAll(boolean useDecoder) {
+        long result = 0;
+        for (String signature : corpus) {
+            if (useDecoder) {
+                result += decodeWithDecoder(signature, 0, signature.length(), 0);
+            } else {
+                result += decodeWithSignature(signature);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Decodes a signature and its type arguments with the reusable decoders, like the data type extractor does.
+     */
+    private long decodeWithDecoder(String signature, int start, int end, int depth) {
+        SignatureDecoder decoder = getDecoder(depth).decode(signature, start, end);
+        long result = decoder.getArrayCount() + decoder.getSimpleName().length() + decoder.getWildcardStatus().ordinal();
+        for (int i = 0; i < decoder.getArgumentCount(); i++) {
+            result += decodeWithDecoder(signature, decoder.getArgumentStart(i), decoder.getArgumentEnd(i), depth + 1);
+        }
+        return result;
+    }
+
+    /**
+     * Decodes a signature and its type arguments with the chain of {@link Signature} calls that the decoder replaced.
+     */
+    private long decodeWithSignature(String signature) {
+        String element = Signature.getElementType(signature);
+        if (JDTUtil.hasLowerBound(element) || JDTUtil.hasUpperBound(element)) {
+            element = element.substring(1);
+        }
+        String name = "*".equals(element) ? "?" : Signature.getSignatureSimpleName(element);
+        long result = Signature.getArrayCount(signature) + name.length() + JDTUtil.getWildcardStatus(signature).ordinal();
+        for (String argument : Signature.getTypeArguments(signature)) {
+            result += decodeWithSignature(argument);
+        }
+        return result;
+    }
+
+    /**
+     * Describes the decoding result of the decoder.
+     */
+    private String describeWithDecoder(String signature, int start, int end, int depth) {
+        SignatureDecoder decoder = getDecoder(depth).decode(signature, start, end);
+        StringBuilder builder = new StringBuilder();
+        builder.append(decoder.getArrayCount()).append(' ').append(decoder.getSimpleName()).append(' ').append(decoder.getWildcardStatus());
+        if (decoder.isUnresolved()) {
+            builder.append(' ').append(decoder.getErasure());
+        }
+        builder.append(" [");
+        for (int i = 0; i < decoder.getArgumentCount(); i++) {
+            builder.append(describeWithDecoder(signature, decoder.getArgumentStart(i), decoder.getArgumentEnd(i), depth + 1)).append(';');
+        }
+        return builder.append(']').toString();
+    }
+
+    /**
+     * Describes the decoding result of the call chain, with the type arguments erased from the simple name.
+     */
+    private String describeWithSignature(String signature) {
+        String element = Signature.getElementType(signature);
+        if (JDTUtil.hasLowerBound(element) || JDTUtil.hasUpperBound(element)) {
+            element = element.substring(1);
+        }
+        String name = "*".equals(element) ? "?" : Signature.getSignatureSimpleName(Signature.getTypeErasure(element));
+        StringBuilder builder = new StringBuilder();
+        builder.append(Signature.getArrayCount(signature)).append(' ').append(name).append(' ');
+        builder.append(JDTUtil.getWildcardStatus(signature));
+        if (JDTUtil.isUnresolved(element)) {
+            builder.append(' ').append(Signature.toString(Signature.getTypeErasure(element)));
+        }
+        builder.append(" [");
+        for (String argument : Signature.getTypeArguments(signature)) {
+            builder.append(describeWithSignature(argument)).append(';');
+        }
+        return builder.append(']').toString();
+    }
+
+    /**
+     * Returns the reusable decoder of a nesting depth.
+     */
+    private SignatureDecoder getDecoder(int depth) {
+        if (depth == decoders.size()) {
+            decoders.add(new SignatureDecoder());
+        }
+        return decoders.get(depth);
+    }
+
+    /**
+     * Runs the warmup and the measured iterations of a benchmark and prints the result.
+     */
+    private void measure(String name, Benchmark benchmark) {
+        for (int i = 0; i < warmupIterations; i++) {
+            sink += benchmark.run();
+        }
+        long[] times = new long[measuredIterations];
+        for (int i = 0; i < measuredIterations; i++) {
+            long start = System.nanoTime();
+            sink += benchmark.run();
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        long total = 0;
+        for (long time : times) {
+            total += time;
+        }
+        double mean = total / (double) times.length / NANOS_PER_MILLI;
+        double median = times[times.length / 2] / NANOS_PER_MILLI;
+        double min = times[0] / NANOS_PER_MILLI;
+        System.out.println(String.format(Locale.ROOT, "  %-10s mean=%10.3fms median=%10.3fms min=%10.3fms", name, mean, median, min));
+    }
+
+    /**
+     * Creates the type signature of a reflected type. Resolved signatures use qualified binary names and type variable
+     * signatures, unresolved signatures use the names as they are written in source code.
+     */
+    private String toSignature(Type type, boolean resolved) {
+        if (type instanceof Class<?> && ((Class<?>) type).isArray()) {
+            return "[" + toSignature(((Class<?>) type).getComponentType(), resolved);
+        } else if (type instanceof Class<?> && ((Class<?>) type).isPrimitive()) {
+            return Signature.createTypeSignature(type.getTypeName(), true);
+        } else if (type instanceof Class<?>) {
+            return (resolved ? "L" : "Q") + toName((Class<?>) type, resolved) + ";";
+        } else if (type instanceof GenericArrayType) {
+            return "[" + toSignature(((GenericArrayType) type).getGenericComponentType(), resolved);
+        } else if (type instanceof TypeVariable<?>) {
+            return (resolved ? "T" : "Q") + ((TypeVariable<?>) type).getName() + ";";
+        } else if (type instanceof WildcardType) {
+            WildcardType wildcard = (WildcardType) type;
+            if (wildcard.getLowerBounds().length > 0) {
+                return "-" + toSignature(wildcard.getLowerBounds()[0], resolved);
+            } else if (wildcard.getUpperBounds()[0] == Object.class) {
+                return "*";
+            }
+            return "+" + toSignature(wildcard.getUpperBounds()[0], resolved);
+        }
+        ParameterizedType parameterized = (ParameterizedType) type;
+        String signature = toSignature(parameterized.getRawType(), resolved);
+        StringBuilder arguments = new StringBuilder("<");
+        for (Type argument : parameterized.getActualTypeArguments()) {
+            arguments.append(toSignature(argument, resolved));
+        }
+        arguments.append('>');
+        if (parameterized.getOwnerType() instanceof ParameterizedType) { // e.g. Outer<T>.Inner<S>
+            String owner = toSignature(parameterized.getOwnerType(), resolved);
+            String innerName = ((Class<?>) parameterized.getRawType()).getSimpleName();
+            return owner.substring(0, owner.length() - 1) + "." + innerName + arguments + ";";
+        }
+        return signature.substring(0, signature.length() - 1) + arguments + ";";
+    }
+
+    /**
+     * Returns the qualified binary name of a class or the name of the class as it is written in source code.
+     */
+    private String toName(Class<?> type, boolean resolved) {
+        if (resolved) {
+            return type.getName();
+        }
+        Class<?> outerType = type.getEnclosingClass();
+        return outerType == null ? type.getSimpleName() : toName(outerType, false) + "." + type.getSimpleName();
+    }
+
+    /**
+     * A single benchmark operation, which returns a value that depends on its work.
+     */
+    @FunctionalInterface
+    private interface Benchmark {
+        long run();
+    }
+}
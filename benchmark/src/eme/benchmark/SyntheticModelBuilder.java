@@ -0,0 +1,317 @@
+package eme.benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import eme.model.ExtractedClass;
+import eme.model.ExtractedEnum;
+import eme.model.ExtractedEnumConstant;
+import eme.model.ExtractedInterface;
+import eme.model.ExtractedMethod;
+import eme.model.ExtractedPackage;
+import eme.model.ExtractedType;
+import eme.model.IntermediateModel;
+import eme.model.datatypes.AccessLevelModifier;
+import eme.model.datatypes.ExtractedDataType;
+import eme.model.datatypes.ExtractedField;
+import eme.model.datatypes.ExtractedParameter;
+import eme.model.datatypes.ExtractedTypeParameter;
+
+/**
+ * Builds synthetic {@link IntermediateModel}s of a configurable shape, which allows to benchmark the model and the
+ * generator without an Eclipse workspace. The models are deterministic: the same configuration always builds the same
+ * model. Every tenth type is an interface, every tenth type after that an enumeration, all other types are classes that
+ * extend the previous class of their package and implement the previous interface.
+ * @author Timur Saglam
+ */
+public class SyntheticModelBuilder {
+    private static final String EXTERNAL_PACKAGE = "external.library.";
+    private static final String LIST_TYPE = "java.util.List";
+    private static final String ROOT_PACKAGE = "synthetic";
+    private int externalTypes;
+    private int fieldsPerType;
+    private int genericDepth;
+    private int innerTypesPerType;
+    private int methodsPerType;
+    private int packages;
+    private int subpackagesPerPackage;
+    private int typesPerPackage;
+
+    /**
+     * Basic constructor, configures a small default shape.
+     */
+    public SyntheticModelBuilder() {
+        packages = 10;
+        subpackagesPerPackage = 2;
+        typesPerPackage = 20;
+        fieldsPerType = 5;
+        methodsPerType = 5;
+        genericDepth = 1;
+        innerTypesPerType = 0;
+        externalTypes = 10;
+    }
+
+    /**
+     * Builds a new {@link IntermediateModel} with the configured shape.
+     * @param projectName is the project name of the model.
+     * @return the synthetic model.
+     */
+    public IntermediateModel build(String projectName) {
+        IntermediateModel model = new IntermediateModel(projectName);
+        model.add(new ExtractedPackage("")); // default package is the root
+        model.add(new ExtractedPackage(ROOT_PACKAGE));
+        List<String> packageNames = new ArrayList<String>();
+        for (int i = 0; i < packages; i++) {
+            String name = ROOT_PACKAGE + ".package" + i;
+            packageNames.add(name);
+            for (int j = 0; j < subpackagesPerPackage; j++) {
+                packageNames.add(name + ".subpackage" + j);
+            }
+        }
+        for (String name : packageNames) {
+            model.add(new ExtractedPackage(name)); // parents are always added first
+        }
+        for (int i = 0; i < externalTypes; i++) {
+            model.addExternal(new ExtractedClass(EXTERNAL_PACKAGE + "External" + i, false, false));
+        }
+        for (int i = 0; i < packageNames.size(); i++) {
+            buildPackage(model, packageNames, i);
+        }
+        return model;
+    }
+
+    /**
+     * Returns the full names of all types a model with the configured shape contains, which are the keys for lookup
+     * benchmarks.
+     * @return the list of full type names, without inner types.
+     */
+    public List<String> buildTypeNames() {
+        List<String> names = new ArrayList<String>();
+        for (int i = 0; i < packages * (subpackagesPerPackage + 1); i++) {
+            for (int j = 0; j < typesPerPackage; j++) {
+                names.add(typeName(packageName(i), j));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Sets the number of external types, which are referenced by fields and method parameters.
+     * @param externalTypes is the number of external types.
+     * @return the builder itself.
+     */
+    public SyntheticModelBuilder externalTypes(int externalTypes) {
+        this.externalTypes = externalTypes;
+        return this;
+    }
+
+    /**
+     * Sets the number of fields of every type.
+     * @param fieldsPerType is the number of fields.
+     * @return the builder itself.
+     */
+    public SyntheticModelBuilder fieldsPerType(int fieldsPerType) {
+        this.fieldsPerType = fieldsPerType;
+        return this;
+    }
+
+    /**
+     * Sets how deep the generic types of the fields are nested, e.g. 2 for <code>List&lt;List&lt;Type&gt;&gt;</code>.
+     * Zero means no generic types.
+     * @param genericDepth is the depth of the generic types.
+     * @return the builder itself.
+     */
+    public SyntheticModelBuilder genericDepth(int genericDepth) {
+        this.genericDepth = genericDepth;
+        return this;
+    }
+
+    /**
+     * Sets the number of inner types of every class.
+     * @param innerTypesPerType is the number of inner types.
+     * @return the builder itself.
+     */
+    public SyntheticModelBuilder innerTypesPerType(int innerTypesPerType) {
+        this.innerTypesPerType = innerTypesPerType;
+        return this;
+    }
+
+    /**
+     * Sets the number of methods of every type.
+     * @param methodsPerType is the number of methods.
+     * @return the builder itself.
+     */
+    public SyntheticModelBuilder methodsPerType(int methodsPerType) {
+        this.methodsPerType = methodsPerType;
+        return this;
+    }
+
+    /**
+     * Sets the number of top-level packages.
+     * @param packages is the number of packages.
+     * @return the builder itself.
+     */
+    public SyntheticModelBuilder packages(int packages) {
+        this.packages = packages;
+        return this;
+    }
+
+    /**
+     * Sets the number of subpackages of every top-level package.
+     * @param subpackagesPerPackage is the number of subpackages.
+     * @return the builder itself.
+     */
+    public SyntheticModelBuilder subpackagesPerPackage(int subpackagesPerPackage) {
+        this.subpackagesPerPackage = subpackagesPerPackage;
+        return this;
+    }
+
+    /**
+     * Sets the number of types of every package.
+     * @param typesPerPackage is the number of types.
+     * @return the builder itself.
+     */
+    public SyntheticModelBuilder typesPerPackage(int typesPerPackage) {
+        this.typesPerPackage = typesPerPackage;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(packages=" + packages + ", subpackages=" + subpackagesPerPackage + ", types="
+                + typesPerPackage + ", fields=" + fieldsPerType + ", methods=" + methodsPerType + ", genericDepth=" + genericDepth
+                + ", innerTypes=" + innerTypesPerType + ", externalTypes=" + externalTypes + ")";
+    }
+
+    /**
+     * Adds the fields and methods to a type. The members reference types of the next package, which creates references
+     * across the whole model.
+     */
+    private void addMembers(ExtractedType type, String referencePackage, int index) {
+        for (int i = 0; i < fieldsPerType; i++) {
+            String fieldType = referencedType(referencePackage, index + i);
+            ExtractedField field = new ExtractedField("field" + i, genericDepth > 0 && i % 2 == 0 ? LIST_TYPE : fieldType, 0);
+            if (genericDepth > 0 && i % 2 == 0) {
+                field.setGenericArguments(createArguments(fieldType, genericDepth - 1));
+            }
+            field.setModifier(AccessLevelModifier.PUBLIC);
+            type.addField(field);
+        }
+        for (int i = 0; i < methodsPerType; i++) {
+            ExtractedDataType returnType = new ExtractedDataType(referencedType(referencePackage, index - i), i % 3 == 0 ? 1 : 0);
+            ExtractedMethod method = new ExtractedMethod(type.getFullName() + ".method" + i, i % 4 == 3 ? null : returnType);
+            method.addParameter(new ExtractedParameter("parameter", referencedType(referencePackage, index + i + 1), 0));
+            if (externalTypes > 0) {
+                method.addParameter(new ExtractedParameter("external", EXTERNAL_PACKAGE + "External" + (index + i) % externalTypes, 0));
+            }
+            method.setModifier(AccessLevelModifier.PUBLIC);
+            type.addMethod(method);
+        }
+    }
+
+    /**
+     * Builds the inner types of a class.
+     */
+    private void buildInnerTypes(IntermediateModel model, ExtractedPackage extractedPackage, String outerType, String referencePackage) {
+        for (int i = 0; i < innerTypesPerType; i++) {
+            ExtractedClass innerType = new ExtractedClass(outerType + ".Inner" + i, false, false);
+            innerType.setOuterType(outerType);
+            addMembers(innerType, referencePackage, i);
+            model.addTo(innerType, extractedPackage);
+        }
+    }
+
+    /**
+     * Builds all types of a package.
+     */
+    private void buildPackage(IntermediateModel model, List<String> packageNames, int packageIndex) {
+        String packageName = packageNames.get(packageIndex);
+        String referencePackage = packageNames.get((packageIndex + 1) % packageNames.size());
+        ExtractedPackage extractedPackage = model.getPackage(packageName);
+        String lastClass = null;
+        String lastInterface = null;
+        for (int i = 0; i < typesPerPackage; i++) {
+            String name = typeName(packageName, i);
+            ExtractedType type;
+            if (i % 10 == 0) {
+                type = new ExtractedInterface(name);
+                lastInterface = name;
+            } else if (i % 10 == 1) {
+                ExtractedEnum extractedEnum = new ExtractedEnum(name);
+                for (int j = 0; j < 4; j++) {
+                    extractedEnum.addConstant(new ExtractedEnumConstant("CONSTANT_" + j));
+                }
+                type = extractedEnum;
+            } else {
+                ExtractedClass extractedClass = new ExtractedClass(name, i % 5 == 0, false);
+                if (lastClass != null) {
+                    extractedClass.setSuperClass(new ExtractedDataType(lastClass, 0));
+                }
+                lastClass = name;
+                type = extractedClass;
+            }
+            if (lastInterface != null && !name.equals(lastInterface)) {
+                type.addInterface(new ExtractedDataType(lastInterface, 0));
+            }
+            if (i % 3 == 2) {
+                type.setTypeParameters(createTypeParameters(referencedType(referencePackage, i)));
+            }
+            addMembers(type, referencePackage, i);
+            model.addTo(type, extractedPackage);
+            if (type instanceof ExtractedClass) {
+                buildInnerTypes(model, extractedPackage, name, referencePackage);
+            }
+        }
+    }
+
+    /**
+     * Creates the generic arguments of a list type recursively.
+     */
+    private List<ExtractedDataType> createArguments(String elementType, int depth) {
+        List<ExtractedDataType> arguments = new LinkedList<ExtractedDataType>();
+        if (depth == 0) {
+            arguments.add(new ExtractedDataType(elementType, 0));
+        } else {
+            ExtractedDataType list = new ExtractedDataType(LIST_TYPE, 0);
+            list.setGenericArguments(createArguments(elementType, depth - 1));
+            arguments.add(list);
+        }
+        return arguments;
+    }
+
+    /**
+     * Creates a single bounded type parameter.
+     */
+    private List<ExtractedTypeParameter> createTypeParameters(String bound) {
+        List<ExtractedTypeParameter> typeParameters = new LinkedList<ExtractedTypeParameter>();
+        ExtractedTypeParameter typeParameter = new ExtractedTypeParameter("T");
+        typeParameter.add(new ExtractedDataType(bound, 0));
+        typeParameters.add(typeParameter);
+        return typeParameters;
+    }
+
+    /**
+     * Returns the name of the package with a specific index, in the order the builder adds them.
+     */
+    private String packageName(int index) {
+        int topLevel = index / (subpackagesPerPackage + 1);
+        int subpackage = index % (subpackagesPerPackage + 1);
+        String name = ROOT_PACKAGE + ".package" + topLevel;
+        return subpackage == 0 ? name : name + ".subpackage" + (subpackage - 1);
+    }
+
+    /**
+     * Returns the name of a type of a package, wrapping the index around the number of types.
+     */
+    private String referencedType(String packageName, int index) {
+        return typeName(packageName, Math.abs(index) % typesPerPackage);
+    }
+
+    /**
+     * Returns the name of a type with a specific index.
+     */
+    private String typeName(String packageName, int index) {
+        return packageName + ".Type" + index;
+    }
+}
@@ -1,26 +1,36 @@
 package eme;
 
+import static eme.properties.BinaryProperty.BOUNDED_MEMORY;
 import static eme.properties.BinaryProperty.CUSTOM_EXTRACTION_SCOPE;
 
+import java.io.File;
+import java.io.IOException;
+
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.JavaCore;
 
+import eme.extractor.DependencyModels;
 import eme.extractor.JavaProjectExtractor;
 import eme.generator.EcoreMetamodelGenerator;
 import eme.generator.GeneratedEcoreMetamodel;
+import eme.metrics.ExtractionMetrics;
 import eme.model.IntermediateModel;
+import eme.model.IntermediateModelSnapshot;
 import eme.properties.ExtractionProperties;
 import eme.ui.SelectionWindow;
 
 /**
- * Main class for Ecore metamodel extraction.
+ * Main class for Ecore metamodel extraction. An instance is reusable and keeps no state of a single extraction, which
+ * means it can serve multiple concurrent extractions. Every extraction uses a snapshot of the properties, while the
+ * {@link DependencyModels} and the {@link eme.extractor.JreTypeIndex} are shared between them.
  * @author Timur Saglam
  */
 public class EcoreMetamodelExtraction {
     private static final Logger logger = LogManager.getLogger(EcoreMetamodelExtraction.class.getName());
+    private final DependencyModels dependencies;
     private final JavaProjectExtractor extractor;
     private final EcoreMetamodelGenerator generator;
     private final ExtractionProperties properties;
@@ -30,29 +40,78 @@ public class EcoreMetamodelExtraction {
      * {@link GenModelGenerator}.
      */
     public EcoreMetamodelExtraction() {
+        this(new ExtractionProperties());
+    }
+
+    /**
+     * Constructor that uses existing {@link ExtractionProperties}, e.g. properties that are shared between multiple
+     * extractions. Builds {@link JavaProjectExtractor} and {@link EcoreMetamodelGenerator}.
+     * @param properties are the {@link ExtractionProperties} for the extraction.
+     */
+    public EcoreMetamodelExtraction(ExtractionProperties properties) {
+        this(properties, new DependencyModels(properties));
+    }
+
+    /**
+     * Constructor that uses existing {@link ExtractionProperties} and existing {@link DependencyModels}. Use this to
+     * reuse the models of already extracted projects when extracting the projects that depend on them.
+     * @param properties are the {@link ExtractionProperties} for the extraction.
+     * @param dependencies are the {@link DependencyModels} of the required projects.
+     */
+    public EcoreMetamodelExtraction(ExtractionProperties properties, DependencyModels dependencies) {
         logger.info("Started EME...");
-        properties = new ExtractionProperties();
-        extractor = new JavaProjectExtractor();
+        this.properties = properties;
+        this.dependencies = dependencies;
+        extractor = new JavaProjectExtractor(dependencies);
         generator = new EcoreMetamodelGenerator(properties);
     }
 
     /**
      * Starts the Ecore metamodel extraction for a specific {@link IProject}. The {@link IProject} will be parsed and an
-     * Ecore metamodel will be build.
+     * Ecore metamodel will be build. The extraction, the generation and the saving use the same snapshot of the properties.
+     * The method is thread-safe if the custom extraction scope is disabled.
      * @param project is the specific {@link IProject} for the extraction.
      * @return the Ecore metamodel.
      */
     public GeneratedEcoreMetamodel extract(IProject project) {
         logger.info("Started extraction of project " + project.getName());
         check(project); // check if valid.
+        ExtractionProperties snapshot = properties.snapshot(); // settings of this run
         IJavaProject javaProject = JavaCore.create(project); // create java project
-        IntermediateModel model = extractor.buildIntermediateModel(javaProject);
-        selectExtractionScope(model); // select scope if enabled in properties
-        GeneratedEcoreMetamodel metamodel = generator.generateMetamodel(model);
-        generator.saveMetamodel(); // save metamodel
+        ExtractionMetrics metrics = new ExtractionMetrics(project.getName());
+        IntermediateModel model = extractor.buildIntermediateModel(javaProject, snapshot.get(BOUNDED_MEMORY), metrics);
+        selectExtractionScope(model, snapshot); // select scope if enabled in properties
+        model.computeContentHashes(); // hashes include the selection
+        dependencies.add(model); // allow reuse by dependent projects, the model does not change anymore
+        GeneratedEcoreMetamodel metamodel = generator.generateMetamodel(model, snapshot, metrics);
+        generator.saveMetamodel(metamodel); // saves with the snapshot of the metamodel
         return metamodel;
     }
 
+    /**
+     * Extracts a specific {@link IProject} again, e.g. after it was edited, and updates its previously extracted
+     * metamodel in place if incremental updates are enabled. Only the classifiers of the changed types are generated
+     * again, the metamodel is then saved.
+     * @param metamodel is the previously extracted Ecore metamodel of the project.
+     * @param project is the specific {@link IProject} for the extraction.
+     * @return the updated Ecore metamodel, which replaces the previous one.
+     * @see EcoreMetamodelGenerator#updateMetamodel(GeneratedEcoreMetamodel, IntermediateModel)
+     */
+    public GeneratedEcoreMetamodel extractAgain(GeneratedEcoreMetamodel metamodel, IProject project) {
+        logger.info("Started extraction of project " + project.getName() + " for an update");
+        check(project); // check if valid.
+        ExtractionProperties snapshot = properties.snapshot(); // settings of this run
+        IJavaProject javaProject = JavaCore.create(project); // create java project
+        ExtractionMetrics metrics = new ExtractionMetrics(project.getName());
+        IntermediateModel model = extractor.buildIntermediateModel(javaProject, snapshot.get(BOUNDED_MEMORY), metrics);
+        selectExtractionScope(model, snapshot); // select scope if enabled in properties
+        model.computeContentHashes(); // hashes include the selection
+        dependencies.add(model); // allow reuse by dependent projects, the model does not change anymore
+        GeneratedEcoreMetamodel updated = generator.updateMetamodel(metamodel, model, snapshot, metrics);
+        generator.saveMetamodel(updated); // saves with the snapshot of the metamodel
+        return updated;
+    }
+
     /**
      * Grants access to the {@link ExtractionProperties}.
      * @return the {@link ExtractionProperties}.
@@ -61,6 +120,26 @@ public class EcoreMetamodelExtraction {
         return properties;
     }
 
+    /**
+     * Generates and saves an Ecore metamodel from an {@link IntermediateModelSnapshot} with the current properties,
+     * without extracting the project again. The selection of the snapshot is kept. Like an extraction, the generation
+     * records {@link ExtractionMetrics} and uses the content hashes of the model. Snapshots are saved next to the
+     * metamodels if the property {@link eme.properties.BinaryProperty#MODEL_SNAPSHOT} is enabled.
+     * @param snapshotFile is the snapshot file of the intermediate model.
+     * @return the Ecore metamodel.
+     * @throws IOException if the snapshot can not be read.
+     */
+    public GeneratedEcoreMetamodel regenerate(File snapshotFile) throws IOException {
+        IntermediateModel model = IntermediateModelSnapshot.read(snapshotFile);
+        logger.info("Started generation from snapshot of project " + model.getProjectName());
+        ExtractionProperties snapshot = properties.snapshot(); // settings of this run
+        ExtractionMetrics metrics = new ExtractionMetrics(model.getProjectName());
+        model.computeContentHashes(); // hashes include the selection
+        GeneratedEcoreMetamodel metamodel = generator.generateMetamodel(model, snapshot, metrics);
+        generator.saveMetamodel(metamodel); // saves with the snapshot of the metamodel
+        return metamodel;
+    }
+
     /**
      * Checks whether a specific {@link IProject} is valid (neither null nor nonexistent)
      * @param project is the specific {@link IProject}.
@@ -77,9 +156,10 @@ public class EcoreMetamodelExtraction {
      * Opens a window for specifying a custom extraction scope. The scope is manifested in the correlating
      * {@link IntermediateModel} through enabling and disabling specific model elements.
      * @param model is the {@link IntermediateModel} for which the extraction scope is specified.
+     * @param snapshot is the snapshot of the {@link ExtractionProperties} of the extraction.
      */
-    private void selectExtractionScope(IntermediateModel model) {
-        if (properties.get(CUSTOM_EXTRACTION_SCOPE)) {
+    private void selectExtractionScope(IntermediateModel model, ExtractionProperties snapshot) {
+        if (snapshot.get(CUSTOM_EXTRACTION_SCOPE)) {
             new SelectionWindow().open(model);
         }
     }
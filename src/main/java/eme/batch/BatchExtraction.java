@@ -0,0 +1,198 @@
+package eme.batch;
+
+import static eme.properties.BinaryProperty.CUSTOM_EXTRACTION_SCOPE;
+import static eme.properties.TextProperty.SAVING_STRATEGY;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import eme.EcoreMetamodelExtraction;
+import eme.batch.BatchReport.Entry;
+import eme.batch.BatchReport.Status;
+import eme.extractor.DependencyModels;
+import eme.generator.GeneratedEcoreMetamodel;
+import eme.generator.saving.CustomPathSaving;
+import eme.generator.saving.NewProjectSaving;
+import eme.properties.ExtractionProperties;
+
+/**
+ * Extracts Ecore metamodels from multiple projects concurrently on a bounded worker pool. Projects are scheduled in the
+ * order of their classpath dependencies, which means a project is only extracted after all the projects it requires.
+ * The {@link ExtractionProperties}, the extracted metamodels and their {@link DependencyModels} are shared between all
+ * runs of an instance, which all use the same {@link EcoreMetamodelExtraction}. This way, the types of a required
+ * project are reused instead of extracted again. Every project gets exactly one report entry, a project whose required
+ * projects were not extracted is skipped.
+ * @author Timur Saglam
+ */
+public class BatchExtraction {
+    private static final Logger logger = LogManager.getLogger(BatchExtraction.class.getName());
+    private static final long POLLING_INTERVAL = 100; // milliseconds
+    private volatile boolean canceled;
+    private final EcoreMetamodelExtraction extraction;
+    private final Map<String, GeneratedEcoreMetamodel> metamodels;
+    private final int poolSize;
+    private final ExtractionProperties properties;
+
+    /**
+     * Basic constructor, uses one worker per available processor.
+     */
+    public BatchExtraction() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor that sets the maximal number of workers.
+     * @param poolSize is the maximal number of concurrent extractions.
+     */
+    public BatchExtraction(int poolSize) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("The pool size has to be positive: " + poolSize);
+        }
+        this.poolSize = poolSize;
+        properties = new ExtractionProperties();
+        metamodels = new ConcurrentHashMap<String, GeneratedEcoreMetamodel>();
+        extraction = new EcoreMetamodelExtraction(properties, new DependencyModels(properties));
+    }
+
+    /**
+     * Extracts the Ecore metamodels of a list of projects. Blocks until every extraction is finished or skipped. The
+     * report contains one entry per project, in the order of the classpath dependencies.
+     * @param projects is the list of {@link IProject}s.
+     * @param monitor is the {@link IProgressMonitor} which shows the aggregated progress and allows canceling.
+     * @return the {@link BatchReport} of the extraction.
+     */
+    public BatchReport extract(List<IProject> projects, IProgressMonitor monitor) {
+        long start = System.currentTimeMillis();
+        canceled = false;
+        prepareProperties();
+        ProjectDependencies projectDependencies = new ProjectDependencies(projects);
+        List<IProject> order = projectDependencies.getOrder();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(poolSize, order.size())));
+        Map<IProject, CompletableFuture<Entry>> futures = new HashMap<IProject, CompletableFuture<Entry>>();
+        for (IProject project : order) { // schedule every project after its dependencies:
+            List<CompletableFuture<Entry>> required = projectDependencies.getRequired(project).stream()
+                    .map(futures::get).collect(Collectors.toList());
+            CompletableFuture<Void> requiredDone = CompletableFuture.allOf(required.toArray(new CompletableFuture<?>[required.size()]));
+            futures.put(project, requiredDone.handleAsync((ignored, failure) -> extract(project, required), pool));
+        }
+        BatchReport report = new BatchReport();
+        monitor.beginTask("Extracting Ecore metamodels", order.size());
+        try {
+            for (IProject project : order) { // collect results on the calling thread
+                Entry entry = join(project, futures.get(project), monitor);
+                report.add(entry);
+                monitor.subTask(entry.toString());
+                monitor.worked(1);
+            }
+        } finally {
+            pool.shutdown();
+            monitor.done();
+        }
+        report.setDuration(System.currentTimeMillis() - start);
+        logger.info(report);
+        return report;
+    }
+
+    /**
+     * Returns the metamodel of a project that was extracted by this instance.
+     * @param projectName is the name of the project.
+     * @return the {@link GeneratedEcoreMetamodel} or null if the project was not extracted.
+     */
+    public GeneratedEcoreMetamodel getMetamodel(String projectName) {
+        return metamodels.get(projectName);
+    }
+
+    /**
+     * Returns all metamodels that were extracted by this instance.
+     * @return an unmodifiable map of project names to {@link GeneratedEcoreMetamodel}s.
+     */
+    public Map<String, GeneratedEcoreMetamodel> getMetamodels() {
+        return Collections.unmodifiableMap(metamodels);
+    }
+
+    /**
+     * Grants access to the shared {@link ExtractionProperties}.
+     * @return the {@link ExtractionProperties}.
+     */
+    public ExtractionProperties getProperties() {
+        return properties;
+    }
+
+    /**
+     * Extracts a single project on a worker thread and creates its report {@link Entry}. The project is skipped if the
+     * batch was canceled or if one of its required projects was not extracted. Never throws, which means every project
+     * gets exactly one entry.
+     */
+    private Entry extract(IProject project, List<CompletableFuture<Entry>> required) {
+        if (canceled) {
+            return new Entry(project.getName(), Status.SKIPPED, 0, "batch was canceled");
+        }
+        for (CompletableFuture<Entry> future : required) { // all required projects are done
+            Entry requiredEntry = future.isCompletedExceptionally() ? null : future.getNow(null);
+            if (requiredEntry == null || requiredEntry.getStatus() != Status.EXTRACTED) {
+                String requiredName = requiredEntry == null ? "" : " " + requiredEntry.getProjectName();
+                return new Entry(project.getName(), Status.SKIPPED, 0, "required project" + requiredName + " was not extracted");
+            }
+        }
+        long start = System.currentTimeMillis();
+        try {
+            GeneratedEcoreMetamodel metamodel = extraction.extract(project);
+            metamodels.put(project.getName(), metamodel);
+            long duration = System.currentTimeMillis() - start;
+            return new Entry(project.getName(), Status.EXTRACTED, duration, metamodel.getIntermediateModel().toString());
+        } catch (Throwable throwable) { // keep the other extractions running, also after errors of JDT
+            logger.error("Extraction of project " + project.getName() + " failed.", throwable);
+            return new Entry(project.getName(), Status.FAILED, System.currentTimeMillis() - start, throwable.toString());
+        }
+    }
+
+    /**
+     * Waits for the report {@link Entry} of a project. Checks the {@link IProgressMonitor} for cancellation while
+     * waiting, which skips all projects that were not started yet.
+     */
+    private Entry join(IProject project, CompletableFuture<Entry> future, IProgressMonitor monitor) {
+        while (true) {
+            try {
+                return future.get(POLLING_INTERVAL, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException exception) {
+                canceled |= monitor.isCanceled();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                canceled = true;
+                logger.error("Interrupted while waiting for the extraction of " + project.getName(), exception);
+                return new Entry(project.getName(), Status.SKIPPED, 0, "batch was interrupted");
+            } catch (ExecutionException exception) { // extract does not throw, but the pool could reject the task
+                logger.error("Extraction of project " + project.getName() + " failed.", exception.getCause());
+                return new Entry(project.getName(), Status.FAILED, 0, exception.getCause().toString());
+            }
+        }
+    }
+
+    /**
+     * Disables all properties that require user interaction, because the workers run outside of the UI thread.
+     */
+    private void prepareProperties() {
+        properties.set(CUSTOM_EXTRACTION_SCOPE, false);
+        String customPath = CustomPathSaving.class.getSimpleName().replace("Saving", "");
+        if (customPath.equals(properties.get(SAVING_STRATEGY))) {
+            String fallback = NewProjectSaving.class.getSimpleName().replace("Saving", "");
+            logger.warn("Custom path saving is not supported in batch mode, using " + fallback + " instead.");
+            properties.set(SAVING_STRATEGY, fallback);
+        }
+    }
+}
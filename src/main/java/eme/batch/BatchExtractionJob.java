@@ -0,0 +1,43 @@
+package eme.batch;
+
+import java.util.List;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Eclipse {@link Job} that runs a {@link BatchExtraction} in the background. The progress of all projects is shown as
+ * one job in the progress view, the summary report is shown in a dialog when the job is finished.
+ * @author Timur Saglam
+ */
+public class BatchExtractionJob extends Job {
+    private final BatchExtraction extraction;
+    private final List<IProject> projects;
+    private final String title;
+
+    /**
+     * Basic constructor.
+     * @param title is the title of the job and of the summary dialog.
+     * @param extraction is the configured {@link BatchExtraction}.
+     * @param projects is the list of {@link IProject}s to extract.
+     */
+    public BatchExtractionJob(String title, BatchExtraction extraction, List<IProject> projects) {
+        super(title);
+        this.title = title;
+        this.extraction = extraction;
+        this.projects = projects;
+        setUser(true); // show progress dialog
+    }
+
+    @Override
+    protected IStatus run(IProgressMonitor monitor) {
+        BatchReport report = extraction.extract(projects, monitor);
+        Display.getDefault().asyncExec(() -> MessageDialog.openInformation(null, title, report.toString()));
+        return monitor.isCanceled() ? Status.CANCEL_STATUS : Status.OK_STATUS;
+    }
+}
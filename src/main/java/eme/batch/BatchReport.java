@@ -0,0 +1,159 @@
+package eme.batch;
+
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Summary report of a {@link BatchExtraction}. Contains one entry per project, in the order in which the extractions
+ * finished.
+ * @author Timur Saglam
+ */
+public class BatchReport {
+    private final List<Entry> entries;
+    private long duration;
+
+    /**
+     * Basic constructor, creates an empty report.
+     */
+    public BatchReport() {
+        entries = new LinkedList<Entry>();
+    }
+
+    /**
+     * Adds the result of a single project extraction to the report.
+     * @param entry is the {@link Entry} of the project.
+     */
+    public synchronized void add(Entry entry) {
+        entries.add(entry);
+    }
+
+    /**
+     * Counts the entries with a specific {@link Status}.
+     * @param status is the specific {@link Status}.
+     * @return the number of entries.
+     */
+    public synchronized int count(Status status) {
+        int count = 0;
+        for (Entry entry : entries) {
+            count = entry.getStatus() == status ? count + 1 : count;
+        }
+        return count;
+    }
+
+    /**
+     * Accessor for the total wall time of the batch extraction.
+     * @return the duration in milliseconds.
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * Accessor for the entries of the report.
+     * @return an unmodifiable copy of the list of {@link Entry}s.
+     */
+    public synchronized List<Entry> getEntries() {
+        return Collections.unmodifiableList(new LinkedList<Entry>(entries));
+    }
+
+    /**
+     * Mutator for the total wall time of the batch extraction.
+     * @param duration is the duration in milliseconds.
+     */
+    public void setDuration(long duration) {
+        this.duration = duration;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("Extracted " + count(Status.EXTRACTED) + " of " + entries.size() + " projects in " + duration + " ms");
+        builder.append(" (" + count(Status.FAILED) + " failed, " + count(Status.SKIPPED) + " skipped):");
+        for (Entry entry : entries) {
+            builder.append(System.lineSeparator()).append("   ").append(entry);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Result of a single project extraction.
+     */
+    public static class Entry {
+        private final long duration;
+        private final String message;
+        private final String projectName;
+        private final Status status;
+
+        /**
+         * Basic constructor.
+         * @param projectName is the name of the extracted project.
+         * @param status is the {@link Status} of the extraction.
+         * @param duration is the duration of the extraction in milliseconds.
+         * @param message is a short description of the result.
+         */
+        public Entry(String projectName, Status status, long duration, String message) {
+            this.projectName = projectName;
+            this.status = status;
+            this.duration = duration;
+            this.message = message;
+        }
+
+        /**
+         * Accessor for the duration of the extraction.
+         * @return the duration in milliseconds.
+         */
+        public long getDuration() {
+            return duration;
+        }
+
+        /**
+         * Accessor for the result description.
+         * @return the message.
+         */
+        public String getMessage() {
+            return message;
+        }
+
+        /**
+         * Accessor for the name of the extracted project.
+         * @return the project name.
+         */
+        public String getProjectName() {
+            return projectName;
+        }
+
+        /**
+         * Accessor for the {@link Status} of the extraction.
+         * @return the status.
+         */
+        public Status getStatus() {
+            return status;
+        }
+
+        @Override
+        public String toString() {
+            return projectName + ": " + status + " after " + duration + " ms (" + message + ")";
+        }
+    }
+
+    /**
+     * Status of a single project extraction.
+     */
+    public enum Status {
+        /**
+         * The metamodel was extracted and saved.
+         */
+        EXTRACTED,
+
+        /**
+         * The extraction failed with an exception.
+         */
+        FAILED,
+
+        /**
+         * The extraction was not started because the batch was canceled or a required project was not extracted.
+         */
+        SKIPPED;
+    }
+}
@@ -0,0 +1,100 @@
+package eme.batch;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+
+/**
+ * Orders a set of {@link IProject}s by their classpath dependencies. Only dependencies between projects of the set are
+ * considered. Cyclic dependencies are broken up and logged, which means the resulting order is always complete.
+ * @author Timur Saglam
+ */
+public class ProjectDependencies {
+    private static final Logger logger = LogManager.getLogger(ProjectDependencies.class.getName());
+    private final Map<IProject, List<IProject>> dependencies;
+    private final List<IProject> order;
+    private final Map<String, IProject> projects;
+
+    /**
+     * Basic constructor, calculates the dependencies and the order of a list of projects.
+     * @param projects is the list of {@link IProject}s.
+     */
+    public ProjectDependencies(List<IProject> projects) {
+        this.projects = new LinkedHashMap<String, IProject>();
+        for (IProject project : projects) {
+            this.projects.put(project.getName(), project);
+        }
+        dependencies = new HashMap<IProject, List<IProject>>();
+        order = new LinkedList<IProject>();
+        Map<IProject, Boolean> visited = new HashMap<IProject, Boolean>(); // false while visiting, true when done
+        for (IProject project : this.projects.values()) {
+            visit(project, visited);
+        }
+    }
+
+    /**
+     * Returns the projects in dependency order. Every project is listed after all the projects it requires.
+     * @return the ordered list of {@link IProject}s.
+     */
+    public List<IProject> getOrder() {
+        return Collections.unmodifiableList(order);
+    }
+
+    /**
+     * Returns the projects of the set that a specific project requires on its classpath.
+     * @param project is the specific {@link IProject}.
+     * @return the list of required {@link IProject}s, which is empty if there are none.
+     */
+    public List<IProject> getRequired(IProject project) {
+        List<IProject> required = dependencies.get(project);
+        return required == null ? Collections.<IProject>emptyList() : Collections.unmodifiableList(required);
+    }
+
+    /**
+     * Reads the names of the projects that are required by an {@link IProject}.
+     */
+    private String[] requiredNames(IProject project) {
+        try {
+            IJavaProject javaProject = JavaCore.create(project);
+            return javaProject.getRequiredProjectNames();
+        } catch (JavaModelException exception) {
+            logger.warn("Could not read the classpath dependencies of " + project.getName(), exception);
+        }
+        return new String[] {};
+    }
+
+    /**
+     * Depth-first visit of a project, which adds its required projects to the order before the project itself.
+     */
+    private void visit(IProject project, Map<IProject, Boolean> visited) {
+        if (visited.containsKey(project)) {
+            return; // already visited or currently visiting
+        }
+        visited.put(project, false); // mark as visiting
+        List<IProject> required = new LinkedList<IProject>();
+        for (String name : requiredNames(project)) {
+            IProject requiredProject = projects.get(name);
+            if (requiredProject != null) { // only dependencies in the set are relevant
+                if (Boolean.FALSE.equals(visited.get(requiredProject))) { // is currently visiting
+                    logger.warn("Ignoring cyclic dependency from " + project.getName() + " to " + name);
+                } else {
+                    visit(requiredProject, visited);
+                    required.add(requiredProject);
+                }
+            }
+        }
+        dependencies.put(project, required);
+        visited.put(project, true); // mark as done
+        order.add(project);
+    }
+}
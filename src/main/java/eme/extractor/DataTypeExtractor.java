@@ -1,18 +1,16 @@
 package eme.extractor;
 
 import static eme.extractor.JDTUtil.getName;
-import static eme.extractor.JDTUtil.getWildcardStatus;
-import static eme.extractor.JDTUtil.hasGenericArguments;
-import static eme.extractor.JDTUtil.hasLowerBound;
-import static eme.extractor.JDTUtil.hasUpperBound;
 import static eme.extractor.JDTUtil.isNestedType;
-import static eme.extractor.JDTUtil.isUnresolved;
 import static eme.extractor.JDTUtil.isVoid;
-import static eme.extractor.JDTUtil.removeGenericArguments;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.log4j.LogManager;
@@ -30,6 +28,8 @@ import org.eclipse.jdt.core.ITypeParameter;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.Signature;
 
+import eme.metrics.ExtractionMetrics;
+import eme.metrics.ExtractionMetrics.Counter;
 import eme.model.datatypes.ExtractedDataType;
 import eme.model.datatypes.ExtractedField;
 import eme.model.datatypes.ExtractedParameter;
@@ -42,12 +42,22 @@ import eme.model.datatypes.ExtractedTypeParameter;
 public class DataTypeExtractor {
     private static final Logger logger = LogManager.getLogger(DataTypeExtractor.class.getName());
     private final Set<String> dataTypes;
+    private int decoderDepth; // nesting depth of the signature that is currently decoded
+    private final List<SignatureDecoder> decoders; // one reusable decoder per nesting depth
+    private final JreTypeIndex jreTypes;
+    private final ExtractionMetrics metrics;
+    private final Map<String, List<String>> superInterfaces; // interfaces of the types outside of the JRE index
 
     /**
      * Basic constructor, sets the set for the potential external types.
+     * @param metrics are the {@link ExtractionMetrics} which count the calls of expensive JDT methods.
      */
-    public DataTypeExtractor() {
+    public DataTypeExtractor(ExtractionMetrics metrics) {
+        this.metrics = metrics;
         this.dataTypes = new HashSet<String>();
+        decoders = new ArrayList<SignatureDecoder>();
+        jreTypes = JreTypeIndex.getInstance();
+        superInterfaces = new HashMap<String, List<String>>();
     }
 
     /**
@@ -59,15 +69,7 @@ public class DataTypeExtractor {
      * @throws JavaModelException if there are problems with the JDT API.
      */
     public ExtractedDataType extractDataType(String signature, IType declaringType) throws JavaModelException {
-        int arrayCount = Signature.getArrayCount(signature);
-        ExtractedDataType dataType = new ExtractedDataType(getFullName(signature, declaringType), arrayCount);
-        dataType.setGenericArguments(extractGenericArguments(signature, declaringType));
-        ITypeHierarchy typeHierarchy = declaringType.newSupertypeHierarchy(new NullProgressMonitor());
-        typeHierarchy.getAllInterfaces();
-        for (IType i : typeHierarchy.getAllInterfaces()) {   
-            dataType.addInterface(i.getFullyQualifiedName()); // add interface
-        }
-        return dataType;
+        return extractDataType(signature, 0, signature.length(), declaringType);
     }
 
     /**
@@ -79,11 +81,15 @@ public class DataTypeExtractor {
      */
     public ExtractedField extractField(IField field, IType type) throws JavaModelException {
         String signature = field.getTypeSignature(); // get return type signature
-        int arrayCount = Signature.getArrayCount(signature);
         String name = field.getElementName(); // name of the field
-        ExtractedField extractedField = new ExtractedField(name, getFullName(signature, type), arrayCount);
-        extractedField.setGenericArguments(extractGenericArguments(signature, type));
-        return extractedField;
+        SignatureDecoder decoder = acquireDecoder().decode(signature);
+        try {
+            ExtractedField extractedField = new ExtractedField(name, getFullName(decoder, type), decoder.getArrayCount());
+            extractedField.setGenericArguments(extractGenericArguments(decoder, type));
+            return extractedField;
+        } finally {
+            releaseDecoder();
+        }
     }
 
     /**
@@ -97,10 +103,14 @@ public class DataTypeExtractor {
         String signature = variable.getTypeSignature(); // get return type signature
         String name = variable.getElementName(); // name of the parameter
         IType declaringType = iMethod.getDeclaringType(); // declaring type of the method
-        int arrayCount = Signature.getArrayCount(signature); // amount of array dimensions
-        ExtractedParameter parameter = new ExtractedParameter(name, getFullName(signature, declaringType), arrayCount);
-        parameter.setGenericArguments(extractGenericArguments(signature, declaringType));
-        return parameter;
+        SignatureDecoder decoder = acquireDecoder().decode(signature);
+        try {
+            ExtractedParameter parameter = new ExtractedParameter(name, getFullName(decoder, declaringType), decoder.getArrayCount());
+            parameter.setGenericArguments(extractGenericArguments(decoder, declaringType));
+            return parameter;
+        } finally {
+            releaseDecoder();
+        }
     }
 
     /**
@@ -145,6 +155,43 @@ public class DataTypeExtractor {
         return new HashSet<String>(dataTypes);
     }
 
+    /**
+     * Releases the {@link SignatureDecoder} of the current nesting depth.
+     */
+    private void releaseDecoder() {
+        decoderDepth--;
+    }
+
+    /**
+     * Returns the reusable {@link SignatureDecoder} of the next nesting depth. Every call has to be followed by a call
+     * of {@link #releaseDecoder()}.
+     */
+    private SignatureDecoder acquireDecoder() {
+        if (decoderDepth == decoders.size()) {
+            decoders.add(new SignatureDecoder());
+        }
+        return decoders.get(decoderDepth++);
+    }
+
+    /**
+     * Adds the super interfaces to an {@link ExtractedDataType}. These are always the interfaces of the data type
+     * itself. For common JRE types, they are taken from the {@link JreTypeIndex}. For any other type they are taken from
+     * the type hierarchy of its {@link IType}, which is found through the project of the declaring type. Types without
+     * an {@link IType}, e.g. primitive types, have no super interfaces.
+     */
+    private void addInterfaces(ExtractedDataType dataType, String fullName, IType declaringType) throws JavaModelException {
+        if (metrics.countLookup(jreTypes.contains(fullName), Counter.JRE_INDEX_HITS, Counter.JRE_INDEX_MISSES)) { // fast path
+            jreTypes.getAllInterfaces(fullName).forEach(dataType::addInterface);
+        } else {
+            List<String> interfaces = superInterfaces.get(fullName);
+            if (interfaces == null) { // first use of the type
+                interfaces = findInterfaces(fullName, declaringType);
+                superInterfaces.put(fullName, interfaces);
+            }
+            interfaces.forEach(dataType::addInterface);
+        }
+    }
+
     /**
      * Extracts bounds for an {@link ExtractedTypeParameter} from an array of bound signatures. Needs an declaring type,
      * which is the {@link IType} itself or the declaring type of an {@link IMethod}.
@@ -156,47 +203,74 @@ public class DataTypeExtractor {
     }
 
     /**
-     * Parses generic arguments from signature and returns them in a list.
+     * Creates an {@link ExtractedDataType} from a signature that is part of a longer string, e.g. a generic argument.
+     */
+    private ExtractedDataType extractDataType(String signature, int start, int end, IType declaringType) throws JavaModelException {
+        SignatureDecoder decoder = acquireDecoder().decode(signature, start, end);
+        try {
+            String fullName = getFullName(decoder, declaringType);
+            ExtractedDataType dataType = new ExtractedDataType(fullName, decoder.getArrayCount());
+            dataType.setWildcardStatus(decoder.getWildcardStatus());
+            dataType.setGenericArguments(extractGenericArguments(decoder, declaringType));
+            addInterfaces(dataType, fullName, declaringType);
+            return dataType;
+        } finally {
+            releaseDecoder();
+        }
+    }
+
+    /**
+     * Parses generic arguments from a decoded signature and returns them in a list.
      */
-    private List<ExtractedDataType> extractGenericArguments(String signature, IType declaringType) throws JavaModelException {
+    private List<ExtractedDataType> extractGenericArguments(SignatureDecoder decoder, IType declaringType) throws JavaModelException {
         List<ExtractedDataType> genericArguments = new LinkedList<ExtractedDataType>();
-        for (String argumentSignature : Signature.getTypeArguments(signature)) { // for every argument
-            ExtractedDataType genericArgument = extractDataType(argumentSignature, declaringType);
-            genericArgument.setWildcardStatus(getWildcardStatus(argumentSignature));
-            genericArguments.add(genericArgument); // add generic type argument
+        for (int i = 0; i < decoder.getArgumentCount(); i++) { // for every argument
+            String signature = decoder.getSignature(); // argument is decoded from its span, without copying it
+            genericArguments.add(extractDataType(signature, decoder.getArgumentStart(i), decoder.getArgumentEnd(i), declaringType));
         }
         return genericArguments;
     }
 
     /**
-     * Tries to resolve an unresolved type signature.
+     * Tries to resolve an unresolved type name.
      */
-    private String extractUnresolved(String signature, IType declaringType) throws JavaModelException {
-        String typeName = signature.substring(1, signature.length() - 1); // cut signature symbols
-        if (hasGenericArguments(typeName)) {
-            typeName = removeGenericArguments(typeName);
-        }
+    private String extractUnresolved(String typeName, IType declaringType) throws JavaModelException {
         if (isNestedType(typeName)) { // if is inner type
-            typeName = resolveInnerType(typeName, declaringType); // try to resolve it manually
+            return resolveInnerType(typeName, declaringType); // try to resolve it manually
         }
         return typeName; // return type name
     }
 
     /**
-     * Returns the full name of a signature and the declaring {@link IType}, e.g "java.lang.String", "java.util.List" or
-     * "char".
+     * Finds the full names of all super interfaces of a type through the project of the declaring type. Returns an
+     * empty list if there is no {@link IType} for the name.
      */
-    private String getFullName(String typeSignature, IType declaringType) throws JavaModelException {
-        String signature = Signature.getElementType(typeSignature); // remove array information
-        if (hasLowerBound(signature) || hasUpperBound(signature)) {
-            signature = signature.substring(1); // remove wild card parameter
+    private List<String> findInterfaces(String fullName, IType declaringType) throws JavaModelException {
+        metrics.count(Counter.FIND_TYPE_CALLS);
+        IType type = declaringType.getJavaProject().findType(fullName);
+        if (type == null) { // primitive, type parameter or unresolved type
+            return Collections.emptyList();
         }
-        String name = Signature.getSignatureSimpleName(signature); // get plain name
+        metrics.count(Counter.HIERARCHY_CALLS);
+        ITypeHierarchy typeHierarchy = type.newSupertypeHierarchy(new NullProgressMonitor());
+        List<String> interfaces = new ArrayList<String>();
+        for (IType superInterface : typeHierarchy.getAllInterfaces()) {
+            interfaces.add(superInterface.getFullyQualifiedName()); // add interface
+        }
+        return interfaces;
+    }
+
+    /**
+     * Returns the full name of a decoded signature and the declaring {@link IType}, e.g "java.lang.String",
+     * "java.util.List" or "char".
+     */
+    private String getFullName(SignatureDecoder decoder, IType declaringType) throws JavaModelException {
+        String name = decoder.getSimpleName(); // get plain name
         String[][] resolvedType = declaringType.resolveType(name); // resolve type from name
         if (resolvedType != null && resolvedType[0] != null) { // if it has full name:
             name = Signature.toQualifiedName(resolvedType[0]); // generate full qualified name
-        } else if (isUnresolved(signature)) { // if not resolved
-            name = extractUnresolved(signature, declaringType); // try to resolve manually
+        } else if (decoder.isUnresolved()) { // if not resolved
+            name = extractUnresolved(decoder.getErasure(), declaringType); // try to resolve manually
         }
         dataTypes.add(name); // potential external type
         return name;
@@ -212,6 +286,7 @@ public class DataTypeExtractor {
         for (IImportDeclaration importDeclaration : unit.getImports()) {
             String name = importDeclaration.getElementName();
             if (name.contains(typeName.split("\\.")[0])) { // if package declaration contains outer type
+                metrics.count(Counter.FIND_TYPE_CALLS);
                 IType resolvedType = project.findType(name.substring(0, name.lastIndexOf('.')), typeName);
                 if (resolvedType != null) { // if resolved an existing IType
                     logger.warn("Resolved type " + getName(resolvedType) + " through import declarations!");
@@ -228,6 +303,7 @@ public class DataTypeExtractor {
     private String resolveInnerType(String innerType, IType declaringType) throws JavaModelException {
         String declaringTypeName = getName(declaringType); // get parent name
         IJavaProject project = declaringType.getPackageFragment().getJavaProject(); // try to resolve locally:
+        metrics.count(Counter.FIND_TYPE_CALLS);
         IType type = project.findType(declaringTypeName.substring(0, declaringTypeName.lastIndexOf('.')), innerType);
         if (type == null) { // if still not resolved
             type = resolveFromImports(innerType, declaringType); // try resolving it from import
@@ -0,0 +1,125 @@
+package eme.extractor;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+
+import eme.generator.saving.AbstractSavingStrategy;
+import eme.generator.saving.NewProjectSaving;
+import eme.model.ExtractedType;
+import eme.model.IntermediateModel;
+import eme.model.IntermediateModelSnapshot;
+import eme.properties.ExtractionProperties;
+import eme.properties.TextProperty;
+
+/**
+ * Registry for the {@link IntermediateModel}s of projects that other projects depend on. When a project requires
+ * another project, the types of the required project can be looked up here instead of extracting them again as external
+ * types. Models are either registered after their extraction or read lazily from saved Ecore files. Lookups return
+ * copies of the types, which means the registered models are never changed by the models that use their types. This
+ * class is thread-safe, which means one instance can be shared between concurrent extractions.
+ * @author Timur Saglam
+ */
+public class DependencyModels {
+    private static final Logger logger = LogManager.getLogger(DependencyModels.class.getName());
+    private static final String MODEL_FOLDER = "model";
+    private final ExtractionProperties properties;
+    private final SavedMetamodelReader reader;
+    private final Map<String, Map<String, ExtractedType>> typeIndex; // project name -> full type name -> type
+
+    /**
+     * Basic constructor, creates an empty registry.
+     * @param properties are the {@link ExtractionProperties}, which are needed to read saved Ecore files.
+     */
+    public DependencyModels(ExtractionProperties properties) {
+        this.properties = properties;
+        reader = new SavedMetamodelReader(properties);
+        typeIndex = new ConcurrentHashMap<String, Map<String, ExtractedType>>();
+    }
+
+    /**
+     * Registers an extracted {@link IntermediateModel}. Its types and its external types can then be used by projects
+     * which depend on the project of the model. The model must not be changed after being registered.
+     * @param model is the {@link IntermediateModel}.
+     */
+    public void add(IntermediateModel model) {
+        typeIndex.put(model.getProjectName(), index(model));
+    }
+
+    /**
+     * Finds a type in the models of a set of required projects. Models that are not registered are read from saved
+     * Ecore files if there are any.
+     * @param fullName is the full name of the type.
+     * @param projectNames are the names of the required projects.
+     * @return a copy of the {@link ExtractedType} or null if no required project contains the type.
+     */
+    public ExtractedType getType(String fullName, String[] projectNames) {
+        for (String projectName : projectNames) {
+            ExtractedType type = getIndex(projectName).get(fullName);
+            if (type != null) {
+                return IntermediateModelSnapshot.copy(type); // the registered model stays unchanged
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the most recent saved Ecore file of a project. Saving strategies save a file named after the project in the
+     * model folder of either the project itself, a new model project or a copy of the project. Other projects are never
+     * searched, even if their names start with the project name.
+     */
+    private File findSavedFile(String projectName) {
+        File result = null;
+        String copySuffix = properties.get(TextProperty.PROJECT_SUFFIX);
+        for (IProject project : ResourcesPlugin.getWorkspace().getRoot().getProjects()) {
+            boolean outputProject = AbstractSavingStrategy.isOutputProject(project.getName(), projectName,
+                    NewProjectSaving.PROJECT_SUFFIX, copySuffix);
+            if (project.isOpen() && outputProject) {
+                IFile file = project.getFolder(MODEL_FOLDER).getFile(projectName + ".ecore");
+                if (file.exists() && file.getLocation() != null) {
+                    File candidate = file.getLocation().toFile();
+                    result = result == null || candidate.lastModified() > result.lastModified() ? candidate : result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the type index of a project. Reads and registers the saved Ecore file of the project if it is not
+     * registered yet. Projects without a saved file get an empty index, so their files are not searched again.
+     */
+    private Map<String, ExtractedType> getIndex(String projectName) {
+        return typeIndex.computeIfAbsent(projectName, name -> {
+            File file = findSavedFile(name);
+            IntermediateModel model = file == null ? null : reader.read(name, file.getPath());
+            if (model == null) {
+                logger.info("There is no extracted metamodel of the required project " + name);
+                return Collections.emptyMap();
+            }
+            return index(model);
+        });
+    }
+
+    /**
+     * Creates a type index with the types and the external types of an {@link IntermediateModel}.
+     */
+    private Map<String, ExtractedType> index(IntermediateModel model) {
+        Map<String, ExtractedType> index = new HashMap<String, ExtractedType>();
+        for (ExtractedType type : model.getExternalTypes()) {
+            index.put(type.getFullName(), type);
+        }
+        for (ExtractedType type : model.getTypes()) { // own types take precedence
+            index.put(type.getFullName(), type);
+        }
+        return Collections.unmodifiableMap(index);
+    }
+}
@@ -1,5 +1,6 @@
 package eme.extractor;
 
+import java.lang.management.ManagementFactory;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.SortedSet;
@@ -14,53 +15,142 @@ import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaModelException;
 
+import eme.metrics.ExtractionEvent;
+import eme.metrics.ExtractionEvents;
+import eme.metrics.ExtractionMetrics;
+import eme.metrics.ExtractionMetrics.Counter;
+import eme.metrics.ExtractionMetrics.Phase;
 import eme.model.ExtractedPackage;
+import eme.model.ExtractedType;
 import eme.model.IntermediateModel;
 
 /**
  * The class analyzes java projects and builds intermediate models with the help of the {@link JavaTypeExtractor},
- * {@link JavaMemberExtractor} and {@link DataTypeExtractor}.
+ * {@link JavaMemberExtractor} and {@link DataTypeExtractor}. The state of a single extraction is kept in a run context,
+ * which means one instance can run multiple extractions concurrently.
  * @author Timur Saglam
  */
 public class JavaProjectExtractor {
     private static final Logger logger = LogManager.getLogger(JavaProjectExtractor.class.getName());
-    private IntermediateModel currentModel;
-    private ExtractedPackage currentPackage;
-    private DataTypeExtractor dataTypeExtractor;
-    private int packageCounter;
-    private JavaTypeExtractor typeExtractor;
+    private static final int BATCH_SIZE = 32; // packages per batch in the bounded-memory mode
+    private final DependencyModels dependencies;
 
     /**
-     * Analyzes a {@link IJavaProject} and builds an {@link IntermediateModel}.
+     * Basic constructor.
+     * @param dependencies are the {@link DependencyModels}, which provide the types of required projects. The extracted
+     * models are not registered there, because they can still change.
+     */
+    public JavaProjectExtractor(DependencyModels dependencies) {
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * Analyzes a {@link IJavaProject} and builds an {@link IntermediateModel} without the bounded-memory traversal. This
+     * method is thread-safe.
      * @param project is the {@link IJavaProject} to analyze.
      * @return an intermediate model that was extracted from the project.
      */
     public IntermediateModel buildIntermediateModel(IJavaProject project) {
-        setup(project);
+        return buildIntermediateModel(project, false);
+    }
+
+    /**
+     * Analyzes a {@link IJavaProject} and builds an {@link IntermediateModel}. This method is thread-safe.
+     * @param project is the {@link IJavaProject} to analyze.
+     * @param boundedMemory specifies whether the bounded-memory traversal is used for this extraction. In this mode,
+     * the packages are processed in batches and every compilation unit that was opened by the extraction is closed at
+     * the end of its batch. This releases the cached element infos and buffers of the Java model, which bounds the
+     * memory usage for large projects. Compilation units that were already open, like the ones in open editors, are not
+     * closed. The heap high-water mark of the {@link ExtractionMetrics} is only measured in this mode.
+     * @return an intermediate model that was extracted from the project.
+     */
+    public IntermediateModel buildIntermediateModel(IJavaProject project, boolean boundedMemory) {
+        return buildIntermediateModel(project, boundedMemory, new ExtractionMetrics(project.getElementName()));
+    }
+
+    /**
+     * Analyzes a {@link IJavaProject} and builds an {@link IntermediateModel} while recording {@link ExtractionMetrics}.
+     * This method is thread-safe.
+     * @param project is the {@link IJavaProject} to analyze.
+     * @param boundedMemory specifies whether the bounded-memory traversal is used for this extraction.
+     * @param metrics are the {@link ExtractionMetrics} of the extraction.
+     * @return an intermediate model that was extracted from the project.
+     */
+    public IntermediateModel buildIntermediateModel(IJavaProject project, boolean boundedMemory, ExtractionMetrics metrics) {
+        RunContext context = setup(project, boundedMemory, metrics);
         try {
-            extractPackages(project); // extract from project
-            typeExtractor.extractExternalTypes(dataTypeExtractor.getDataTypes()); // extract potential external
+            metrics.begin(Phase.EXTRACTION);
+            extractPackages(project, context); // extract from project
+            metrics.end(Phase.EXTRACTION);
+            metrics.begin(Phase.EXTERNAL_TYPES);
+            context.typeExtractor.extractExternalTypes(context.dataTypeExtractor.getDataTypes()); // extract potential external
+            metrics.end(Phase.EXTERNAL_TYPES);
         } catch (JavaModelException exception) {
             throw new ExtractionException("Error while extracting the model.", exception);
         }
-        currentModel.sort(); // sort model content
-        currentModel.print(); // print intermediate model.
-        return currentModel;
+        if (context.boundedMemory) {
+            updateHeapHighWaterMark(context);
+        }
+        metrics.setHeapHighWaterMark(context.heapHighWaterMark);
+        metrics.add(Counter.EXTERNAL_TYPES, context.model.getExternalTypes().size());
+        metrics.begin(Phase.SORT);
+        context.model.sort(); // sort model content
+        metrics.end(Phase.SORT);
+        context.model.print(); // print intermediate model.
+        return context.model;
+    }
+
+    /**
+     * Closes the compilation units that were opened by the extraction. A unit that can not be closed is logged and
+     * skipped, which means the other units are still closed and the exception of a failed extraction is not hidden.
+     */
+    private void close(List<ICompilationUnit> units) {
+        for (ICompilationUnit unit : units) {
+            try {
+                unit.close(); // releases element infos and buffer
+            } catch (JavaModelException exception) {
+                logger.warn("Could not close " + unit.getElementName(), exception);
+            }
+        }
+        units.clear();
     }
 
     /**
      * Extracts all compilation units from a list of package fragments. It then extracts all ICompilationUnits while
-     * updating the current package.
+     * updating the current package. In the bounded-memory mode, the opened units are closed after every batch, and also
+     * if the extraction fails in the middle of a batch.
      */
-    private void extractCompilationUnits(List<IPackageFragment> fragments) throws JavaModelException {
-        for (IPackageFragment fragment : fragments) { // for every package fragment
-            currentPackage = currentModel.getPackage(fragment.getElementName()); // model package
-            reportProgress(fragments.size());
-            for (ICompilationUnit unit : fragment.getCompilationUnits()) { // get compilation units
-                for (IType type : unit.getAllTypes()) { // for all types
-                    currentModel.addTo(typeExtractor.extractType(type), currentPackage);
+    private void extractCompilationUnits(List<IPackageFragment> fragments, RunContext context) throws JavaModelException {
+        List<ICompilationUnit> openedUnits = new LinkedList<ICompilationUnit>();
+        int batchCounter = 0;
+        try {
+            for (IPackageFragment fragment : fragments) { // for every package fragment
+                context.currentPackage = context.model.getPackage(fragment.getElementName()); // model package
+                reportProgress(fragments.size(), context);
+                ExtractionEvent event = ExtractionEvents.beginPackage(fragment.getElementName());
+                ICompilationUnit[] units = fragment.getCompilationUnits();
+                int types = 0;
+                for (ICompilationUnit unit : units) { // get compilation units
+                    if (context.boundedMemory && !unit.isOpen() && !unit.isWorkingCopy()) {
+                        openedUnits.add(unit); // remember to close it again
+                    }
+                    context.metrics.count(Counter.COMPILATION_UNITS);
+                    for (IType type : unit.getAllTypes()) { // for all types
+                        ExtractedType extractedType = context.typeExtractor.extractType(type);
+                        context.metrics.count(Counter.TYPES);
+                        context.metrics.add(Counter.MEMBERS, extractedType.getFields().size() + extractedType.getMethods().size());
+                        context.model.addTo(extractedType, context.currentPackage);
+                        types++;
+                    }
+                }
+                event.commit(units.length, types);
+                if (context.boundedMemory && ++batchCounter % BATCH_SIZE == 0) { // end of batch
+                    updateHeapHighWaterMark(context);
+                    close(openedUnits);
                 }
             }
+        } finally {
+            close(openedUnits); // close the last batch, also after a failure
         }
     }
 
@@ -69,7 +159,7 @@ public class JavaProjectExtractor {
      * parsing the {@link IPackageFragment}s. The method creates the packages from a set of package names to avoid the
      * problem of duplicate default packages. But all other parsing calls are done with a list of fragments.
      */
-    private void extractPackages(IJavaProject project) throws JavaModelException {
+    private void extractPackages(IJavaProject project, RunContext context) throws JavaModelException {
         SortedSet<String> packageNames = new TreeSet<String>(); // set to avoid duplicates
         List<IPackageFragment> fragments = new LinkedList<IPackageFragment>();
         for (IPackageFragment fragment : project.getPackageFragments()) {
@@ -79,9 +169,9 @@ public class JavaProjectExtractor {
             }
         }
         for (String name : packageNames) {
-            currentModel.add(new ExtractedPackage(name)); // build model packages first
+            context.model.add(new ExtractedPackage(name)); // build model packages first
         }
-        extractCompilationUnits(fragments); // then continue parsing
+        extractCompilationUnits(fragments, context); // then continue parsing
     }
 
     /**
@@ -94,19 +184,47 @@ public class JavaProjectExtractor {
     /**
      * Reports on the parsing progress by logging the current package.
      */
-    private void reportProgress(int packages) {
-        packageCounter++; // increase package count
-        logger.info("Parsing package " + currentPackage.getFullName() + " (" + packageCounter + "/" + packages + ")");
-        packageCounter = (packageCounter == packages) ? 0 : packageCounter; // reset to zero if finished
+    private void reportProgress(int packages, RunContext context) {
+        context.packageCounter++; // increase package count
+        String packageName = context.currentPackage.getFullName();
+        logger.info("Parsing package " + packageName + " (" + context.packageCounter + "/" + packages + ")");
     }
 
     /**
-     * Creates the {@link IntermediateModel} instance and the other extractors.
+     * Updates the heap high-water mark of a run with a sample of the currently used heap. The sample does not change the
+     * global state of the memory pools, which means concurrent extractions and other tools are not affected.
      */
-    private void setup(IJavaProject project) {
-        currentModel = new IntermediateModel(project.getElementName()); // create new model.
-        dataTypeExtractor = new DataTypeExtractor();
-        typeExtractor = new JavaTypeExtractor(currentModel, project, dataTypeExtractor);
+    private void updateHeapHighWaterMark(RunContext context) {
+        long usedHeap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        context.heapHighWaterMark = Math.max(context.heapHighWaterMark, usedHeap);
+        logger.debug("Heap high-water mark: " + (context.heapHighWaterMark >> 20) + " MB");
+    }
+
+    /**
+     * Creates the run context with the {@link IntermediateModel} instance and the other extractors.
+     */
+    private RunContext setup(IJavaProject project, boolean boundedMemory, ExtractionMetrics metrics) {
+        RunContext context = new RunContext();
+        context.boundedMemory = boundedMemory;
+        context.metrics = metrics;
+        context.model = new IntermediateModel(project.getElementName()); // create new model.
+        context.dataTypeExtractor = new DataTypeExtractor(metrics);
+        context.typeExtractor = new JavaTypeExtractor(context.model, project, context.dataTypeExtractor, dependencies, metrics);
         logger.info("Started parsing the project...");
+        return context;
+    }
+
+    /**
+     * State of a single extraction, which is only accessed by the thread running the extraction.
+     */
+    private static class RunContext {
+        private boolean boundedMemory;
+        private ExtractedPackage currentPackage;
+        private DataTypeExtractor dataTypeExtractor;
+        private long heapHighWaterMark;
+        private ExtractionMetrics metrics;
+        private IntermediateModel model;
+        private int packageCounter;
+        private JavaTypeExtractor typeExtractor;
     }
-}
\ No newline at end of file
+}
@@ -15,6 +15,10 @@ import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.ITypeHierarchy;
 import org.eclipse.jdt.core.JavaModelException;
 
+import eme.metrics.ExtractionEvent;
+import eme.metrics.ExtractionEvents;
+import eme.metrics.ExtractionMetrics;
+import eme.metrics.ExtractionMetrics.Counter;
 import eme.model.ExtractedClass;
 import eme.model.ExtractedEnum;
 import eme.model.ExtractedEnumConstant;
@@ -30,7 +34,10 @@ import eme.model.IntermediateModel;
 public class JavaTypeExtractor {
     private static final Logger logger = LogManager.getLogger(JavaTypeExtractor.class.getName());
     private final DataTypeExtractor dataTypeExtractor;
+    private final DependencyModels dependencies;
+    private final JreTypeIndex jreTypes;
     private final JavaMemberExtractor memberExtractor;
+    private final ExtractionMetrics metrics;
     private final IntermediateModel model;
     private final IJavaProject project;
 
@@ -39,11 +46,17 @@ public class JavaTypeExtractor {
      * @param model sets the intermediate model.
      * @param project sets the current project, which is extracted.
      * @param dataTypeExtractor sets the DataTypeParser.
+     * @param dependencies sets the {@link DependencyModels}, which provide the types of required projects.
+     * @param metrics sets the {@link ExtractionMetrics}, which count the calls of expensive JDT methods.
      */
-    public JavaTypeExtractor(IntermediateModel model, IJavaProject project, DataTypeExtractor dataTypeExtractor) {
+    public JavaTypeExtractor(IntermediateModel model, IJavaProject project, DataTypeExtractor dataTypeExtractor,
+            DependencyModels dependencies, ExtractionMetrics metrics) {
         this.dataTypeExtractor = dataTypeExtractor;
+        this.dependencies = dependencies;
+        this.metrics = metrics;
         this.model = model;
         this.project = project;
+        jreTypes = JreTypeIndex.getInstance();
         memberExtractor = new JavaMemberExtractor(dataTypeExtractor);
     }
 
@@ -51,16 +64,18 @@ public class JavaTypeExtractor {
      * Parses a list of potential external types. If the model is a external type, and an IType can be found, it will be
      * added as an external ExtractedType to the model. An external type is either not part of the intermediate model or it
      * is part of the intermediate model and is a inner type, which means he can be treated as a external type in the case
-     * that external types are not supposed to be extracted.
+     * that external types are not supposed to be extracted. Types of required projects are reused from their already
+     * extracted models if possible.
      * @param externalTypes is the set of external types to extract.
      * @throws JavaModelException if there are problem with the JDT API.
      */
     public void extractExternalTypes(Set<String> externalTypes) throws JavaModelException {
         logger.info("Parsing external types...");
+        String[] requiredProjects = project.getRequiredProjectNames();
         for (String typeName : externalTypes) { // for every potential external type
             if (model.contains(typeName)) { // if is a true external type
                 extractPseudoExternal(typeName);
-            } else {
+            } else if (!reuseExternal(typeName, requiredProjects)) {
                 extractExternal(typeName);
             }
         }
@@ -73,6 +88,7 @@ public class JavaTypeExtractor {
      * @throws JavaModelException if there are problem with the JDT API.
      */
     public ExtractedType extractType(IType type) throws JavaModelException {
+        ExtractionEvent event = ExtractionEvents.beginType(getName(type));
         ExtractedType extractedType = null;
         if (type.isClass()) {
             extractedType = extractClass(type); // create class
@@ -88,6 +104,7 @@ public class JavaTypeExtractor {
         for (String signature : type.getSuperInterfaceTypeSignatures()) {
             extractedType.addInterface(dataTypeExtractor.extractDataType(signature, type)); // add interface
         }
+        event.commit(extractedType.getFields().size(), extractedType.getMethods().size());
         return extractedType;
     }
 
@@ -95,6 +112,7 @@ public class JavaTypeExtractor {
      * Checks whether an {@link IType} inherits from the class {@link java.lang.Throwable}
      */
     private boolean extendsThrowable(IType type) throws JavaModelException {
+        metrics.count(Counter.HIERARCHY_CALLS);
         ITypeHierarchy hierarchy = type.newSupertypeHierarchy(new NullProgressMonitor()); // get super type hierarchy
         for (IType superType : hierarchy.getAllSuperclasses(type)) { // for every super type
             if (Throwable.class.getName().equals(superType.getFullyQualifiedName())) { // if is called throwable
@@ -131,9 +149,15 @@ public class JavaTypeExtractor {
     }
 
     /**
-     * Extracts a external type if it can be found with {@link IJavaProject#findType(String)}.
+     * Extracts a external type if it can be found with {@link IJavaProject#findType(String)}. Common JRE types are taken
+     * from the {@link JreTypeIndex} instead.
      */
     private void extractExternal(String typeName) throws JavaModelException {
+        if (metrics.countLookup(jreTypes.contains(typeName), Counter.JRE_INDEX_HITS, Counter.JRE_INDEX_MISSES)) { // fast path
+            model.addExternal(jreTypes.createType(typeName));
+            return;
+        }
+        metrics.count(Counter.FIND_TYPE_CALLS);
         IType type = project.findType(typeName); // try to find IType
         if (type != null) { // if IType was found:
             ExtractedType extractedType = extractType(type);
@@ -142,6 +166,19 @@ public class JavaTypeExtractor {
         }
     }
 
+    /**
+     * Adds an external type from the model of a required project to the {@link IntermediateModel}, if one of the
+     * required projects contains it.
+     */
+    private boolean reuseExternal(String typeName, String[] requiredProjects) {
+        ExtractedType type = dependencies.getType(typeName, requiredProjects);
+        if (metrics.countLookup(type != null, Counter.DEPENDENCY_HITS, Counter.DEPENDENCY_MISSES)) {
+            model.addExternal(type); // copy instead of extracting again
+            logger.debug("Reused external " + type);
+        }
+        return type != null;
+    }
+
     /**
      * Parses an {@link IType} that has been identified as interface.
      */
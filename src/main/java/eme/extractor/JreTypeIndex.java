@@ -0,0 +1,228 @@
+package eme.extractor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import eme.model.ExtractedClass;
+import eme.model.ExtractedEnum;
+import eme.model.ExtractedInterface;
+import eme.model.ExtractedType;
+import eme.model.datatypes.ExtractedDataType;
+import eme.model.datatypes.ExtractedTypeParameter;
+
+/**
+ * Precomputed index of common JRE types like {@link java.util.List}, {@link java.util.Map} or the types of
+ * <code>java.time</code>. The index contains the kind, the type parameters and the super types of every type. It allows
+ * to resolve these types as external types without using the JDT. The index is loaded once from the bundled resource
+ * <code>jre-types.index</code> and is immutable afterwards, which means it can be shared between threads.
+ * @author Timur Saglam
+ */
+public final class JreTypeIndex {
+    private static final Logger logger = LogManager.getLogger(JreTypeIndex.class.getName());
+    private static final String RESOURCE = "/jre-types.index";
+    private static final String THROWABLE = Throwable.class.getName();
+    private final Map<String, Entry> entries;
+
+    /**
+     * Private constructor, loads the index.
+     */
+    private JreTypeIndex() {
+        entries = new HashMap<String, Entry>();
+        load();
+        for (Entry entry : entries.values()) {
+            collectInterfaces(entry);
+        }
+        logger.info("Loaded index with " + entries.size() + " JRE types.");
+    }
+
+    /**
+     * Grants access to the shared index, which is loaded on first access.
+     * @return the {@link JreTypeIndex} instance.
+     */
+    public static JreTypeIndex getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Checks whether the index contains a type.
+     * @param fullName is the full name of the type, e.g. "java.util.Map.Entry".
+     * @return true if it does.
+     */
+    public boolean contains(String fullName) {
+        return entries.containsKey(fullName);
+    }
+
+    /**
+     * Creates a new {@link ExtractedType} for a type of the index. The type contains its type parameters and its super
+     * types, but no members.
+     * @param fullName is the full name of the type.
+     * @return the new {@link ExtractedType} or null if the index does not contain the type.
+     */
+    public ExtractedType createType(String fullName) {
+        Entry entry = entries.get(fullName);
+        if (entry == null) {
+            return null;
+        }
+        ExtractedType type;
+        if (entry.kind == 'I') {
+            type = new ExtractedInterface(fullName);
+        } else if (entry.kind == 'E') {
+            type = new ExtractedEnum(fullName);
+        } else {
+            ExtractedClass extractedClass = new ExtractedClass(fullName, entry.kind == 'A', isThrowable(entry));
+            if (entry.superClass != null) {
+                extractedClass.setSuperClass(new ExtractedDataType(entry.superClass, 0));
+            }
+            type = extractedClass;
+        }
+        type.setOuterType(entry.outerType);
+        type.setTypeParameters(createTypeParameters(entry));
+        for (String superInterface : entry.interfaces) {
+            type.addInterface(new ExtractedDataType(superInterface, 0));
+        }
+        return type;
+    }
+
+    /**
+     * Returns all super interfaces of a type of the index, including the interfaces of its super types.
+     * @param fullName is the full name of the type.
+     * @return the unmodifiable set of interface names, which is empty if the index does not contain the type.
+     */
+    public Set<String> getAllInterfaces(String fullName) {
+        Entry entry = entries.get(fullName);
+        return entry == null ? Collections.<String>emptySet() : entry.allInterfaces;
+    }
+
+    /**
+     * Collects all super interfaces of an entry recursively and caches them in the entry.
+     */
+    private Set<String> collectInterfaces(Entry entry) {
+        if (entry.allInterfaces == null) {
+            Set<String> allInterfaces = new LinkedHashSet<String>();
+            for (String superInterface : entry.interfaces) {
+                allInterfaces.add(superInterface);
+                allInterfaces.addAll(collectInterfaces(superInterface));
+            }
+            if (entry.superClass != null) {
+                allInterfaces.addAll(collectInterfaces(entry.superClass));
+            }
+            entry.allInterfaces = Collections.unmodifiableSet(allInterfaces);
+        }
+        return entry.allInterfaces;
+    }
+
+    /**
+     * Collects all super interfaces of a type name, if the type is part of the index.
+     */
+    private Set<String> collectInterfaces(String fullName) {
+        Entry entry = entries.get(fullName);
+        return entry == null ? Collections.<String>emptySet() : collectInterfaces(entry);
+    }
+
+    /**
+     * Creates the {@link ExtractedTypeParameter}s of an entry.
+     */
+    private List<ExtractedTypeParameter> createTypeParameters(Entry entry) {
+        List<ExtractedTypeParameter> typeParameters = new LinkedList<ExtractedTypeParameter>();
+        for (String declaration : entry.typeParameters) {
+            String[] parts = declaration.split(":");
+            ExtractedTypeParameter typeParameter = new ExtractedTypeParameter(parts[0]);
+            if (parts.length > 1) {
+                for (String bound : parts[1].split("&")) {
+                    typeParameter.add(new ExtractedDataType(bound, 0));
+                }
+            }
+            typeParameters.add(typeParameter);
+        }
+        return typeParameters;
+    }
+
+    /**
+     * Checks whether an entry is a class that inherits from {@link Throwable}.
+     */
+    private boolean isThrowable(Entry entry) {
+        Entry current = entry;
+        while (current != null) {
+            if (THROWABLE.equals(current.name)) {
+                return true;
+            }
+            current = current.superClass == null ? null : entries.get(current.superClass);
+        }
+        return false;
+    }
+
+    /**
+     * Loads the entries from the bundled resource.
+     */
+    private void load() {
+        try (InputStream stream = JreTypeIndex.class.getResourceAsStream(RESOURCE)) {
+            if (stream == null) {
+                logger.warn("Could not find the JRE type index " + RESOURCE);
+                return;
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty() && line.charAt(0) != '#') { // skip comments
+                    Entry entry = new Entry(line.split("\\|", -1));
+                    entries.put(entry.name, entry);
+                }
+            }
+        } catch (IOException exception) {
+            logger.error("Could not load the JRE type index " + RESOURCE, exception);
+        }
+    }
+
+    /**
+     * Lazy initialization holder for the shared instance.
+     */
+    private static class Holder {
+        private static final JreTypeIndex INSTANCE = new JreTypeIndex();
+    }
+
+    /**
+     * A single type of the index.
+     */
+    private static class Entry {
+        private Set<String> allInterfaces;
+        private final String[] interfaces;
+        private final char kind;
+        private final String name;
+        private final String outerType;
+        private final String superClass;
+        private final String[] typeParameters;
+
+        /**
+         * Creates an entry from the columns of an index line.
+         */
+        Entry(String[] columns) {
+            kind = columns[0].charAt(0);
+            String binaryName = columns[1];
+            name = binaryName.replace('$', '.');
+            outerType = binaryName.contains("$") ? binaryName.substring(0, binaryName.lastIndexOf('$')).replace('$', '.') : null;
+            typeParameters = split(columns[2]);
+            superClass = columns[3].isEmpty() ? null : columns[3].replace('$', '.');
+            interfaces = split(columns[4].replace('$', '.'));
+        }
+
+        /**
+         * Splits a comma separated column.
+         */
+        private static String[] split(String column) {
+            return column.isEmpty() ? new String[] {} : column.split(",");
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package eme.extractor;
+
+import java.util.LinkedList;
+import java.util.List;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EDataType;
+import org.eclipse.emf.ecore.EEnum;
+import org.eclipse.emf.ecore.EEnumLiteral;
+import org.eclipse.emf.ecore.EGenericType;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.ETypeParameter;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.emf.ecore.xmi.impl.XMIResourceFactoryImpl;
+
+import eme.model.ExtractedClass;
+import eme.model.ExtractedEnum;
+import eme.model.ExtractedEnumConstant;
+import eme.model.ExtractedInterface;
+import eme.model.ExtractedType;
+import eme.model.IntermediateModel;
+import eme.model.datatypes.ExtractedDataType;
+import eme.model.datatypes.ExtractedTypeParameter;
+import eme.properties.ExtractionProperties;
+import eme.properties.TextProperty;
+
+/**
+ * Reads an Ecore file that was saved by an earlier extraction and rebuilds the types of an {@link IntermediateModel}
+ * from it. The rebuilt model only contains what is needed to use its types as external types: the kind of type, the
+ * enumerals and the type parameters. Generic arguments of type parameter bounds are not restored.
+ * @author Timur Saglam
+ */
+public class SavedMetamodelReader {
+    private static final Logger logger = LogManager.getLogger(SavedMetamodelReader.class.getName());
+    private final String dataTypePackage;
+    private final String nestedTypeSuffix;
+
+    /**
+     * Basic constructor.
+     * @param properties are the {@link ExtractionProperties}, which define the package naming of saved metamodels.
+     */
+    public SavedMetamodelReader(ExtractionProperties properties) {
+        nestedTypeSuffix = properties.get(TextProperty.NESTED_TYPE_PACKAGE);
+        dataTypePackage = properties.get(TextProperty.DATATYPE_PACKAGE);
+    }
+
+    /**
+     * Reads a saved Ecore file and rebuilds the types of its {@link IntermediateModel}.
+     * @param projectName is the name of the project the Ecore file was extracted from.
+     * @param filePath is the path of the Ecore file.
+     * @return the {@link IntermediateModel}, which contains the types, or null if the file could not be read.
+     */
+    public IntermediateModel read(String projectName, String filePath) {
+        ResourceSet resourceSet = new ResourceSetImpl();
+        resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap().put(EcorePackage.eNAME, new XMIResourceFactoryImpl());
+        try {
+            Resource resource = resourceSet.getResource(URI.createFileURI(filePath), true);
+            IntermediateModel model = new IntermediateModel(projectName);
+            TreeIterator<EObject> iterator = resource.getAllContents();
+            while (iterator.hasNext()) {
+                EObject element = iterator.next();
+                if (element instanceof EPackage && isDataTypePackage((EPackage) element)) {
+                    iterator.prune(); // external types of the saved metamodel are not rebuilt
+                } else if (element instanceof EClassifier) {
+                    ExtractedType type = rebuild((EClassifier) element);
+                    if (type != null) {
+                        model.addExternal(type);
+                    }
+                    iterator.prune(); // no need to visit features
+                }
+            }
+            logger.info("Read " + model.getExternalTypes().size() + " types of " + projectName + " from " + filePath);
+            return model;
+        } catch (RuntimeException exception) { // EMF wraps IO problems in runtime exceptions
+            logger.warn("Could not read the saved metamodel " + filePath, exception);
+        }
+        return null;
+    }
+
+    /**
+     * Reconstructs the full Java name of a saved {@link EClassifier} from its package hierarchy. The root package and
+     * the suffix of inner type packages are not part of the name.
+     */
+    private String getFullName(EClassifier classifier) {
+        if (classifier instanceof EDataType && classifier.getInstanceTypeName() != null && !(classifier instanceof EEnum)) {
+            return classifier.getInstanceTypeName();
+        }
+        StringBuilder name = new StringBuilder(classifier.getName());
+        EPackage ePackage = classifier.getEPackage();
+        while (ePackage != null && ePackage.getESuperPackage() != null) { // ignore root package
+            String packageName = ePackage.getName();
+            if (packageName.endsWith(nestedTypeSuffix)) { // package of an outer type
+                packageName = packageName.substring(0, packageName.length() - nestedTypeSuffix.length());
+            }
+            name.insert(0, packageName + '.');
+            ePackage = ePackage.getESuperPackage();
+        }
+        return name.toString();
+    }
+
+    /**
+     * Checks whether an {@link EPackage} is the base package of the external types of a saved metamodel.
+     */
+    private boolean isDataTypePackage(EPackage ePackage) {
+        EPackage superPackage = ePackage.getESuperPackage();
+        return superPackage != null && superPackage.getESuperPackage() == null && dataTypePackage.equals(ePackage.getName());
+    }
+
+    /**
+     * Rebuilds an {@link ExtractedType} from a saved {@link EClassifier}.
+     */
+    private ExtractedType rebuild(EClassifier classifier) {
+        ExtractedType type = null;
+        String fullName = getFullName(classifier);
+        if (classifier instanceof EClass) {
+            EClass eClass = (EClass) classifier;
+            type = eClass.isInterface() ? new ExtractedInterface(fullName) : new ExtractedClass(fullName, eClass.isAbstract(), false);
+        } else if (classifier instanceof EEnum) {
+            ExtractedEnum extractedEnum = new ExtractedEnum(fullName);
+            for (EEnumLiteral literal : ((EEnum) classifier).getELiterals()) {
+                extractedEnum.addConstant(new ExtractedEnumConstant(literal.getName()));
+            }
+            type = extractedEnum;
+        }
+        if (type != null) {
+            type.setTypeParameters(rebuildTypeParameters(classifier));
+        }
+        return type;
+    }
+
+    /**
+     * Rebuilds the {@link ExtractedTypeParameter}s of a saved {@link EClassifier}.
+     */
+    private List<ExtractedTypeParameter> rebuildTypeParameters(EClassifier classifier) {
+        List<ExtractedTypeParameter> typeParameters = new LinkedList<ExtractedTypeParameter>();
+        for (ETypeParameter eTypeParameter : classifier.getETypeParameters()) {
+            ExtractedTypeParameter typeParameter = new ExtractedTypeParameter(eTypeParameter.getName());
+            for (EGenericType bound : eTypeParameter.getEBounds()) {
+                if (bound.getETypeParameter() != null) { // bound is another type parameter
+                    typeParameter.add(new ExtractedDataType(bound.getETypeParameter().getName(), 0));
+                } else if (bound.getEClassifier() != null) { // bound is a type
+                    typeParameter.add(new ExtractedDataType(getFullName(bound.getEClassifier()), 0));
+                }
+            }
+            typeParameters.add(typeParameter);
+        }
+        return typeParameters;
+    }
+}
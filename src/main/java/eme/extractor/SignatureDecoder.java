@@ -0,0 +1,299 @@
+package eme.extractor;
+
+import java.util.Arrays;
+
+import eme.model.datatypes.WildcardStatus;
+
+/**
+ * Single-pass decoder for JDT type signatures like <code>[QList&lt;+QNumber;&gt;;</code>. One walk over a signature
+ * yields the array dimensions, the wildcard kind, the erasure and the spans of the type arguments, which replaces the
+ * chain of <code>Signature.getArrayCount()</code>, <code>getElementType()</code>, <code>getSignatureSimpleName()</code>
+ * and <code>getTypeArguments()</code> calls that each scan and copy the signature again. A decoder is a reusable cursor:
+ * every call of {@link #decode(String, int, int)} overwrites the previous result. The type arguments are not copied,
+ * they are decoded with another decoder from their spans in the original signature. This class is not thread-safe.
+ * @author Timur Saglam
+ */
+public final class SignatureDecoder {
+    private static final String[] PRIMITIVES = new String[26]; // indexed by signature character
+    private int argumentCount;
+    private int[] argumentSpans; // start and end index of every type argument
+    private int arrayCount;
+    private int boundArrayCount; // array dimensions behind a wildcard
+    private int end;
+    private String erasure;
+    private int genericStart; // index of the first type argument list or -1
+    private char kind;
+    private int nameEnd;
+    private int nameStart;
+    private boolean segmentedGenerics; // generic arguments of an outer type, e.g. Outer<T>.Inner
+    private String signature;
+    private WildcardStatus wildcardStatus;
+
+    static {
+        String[] names = { "byte", "char", "double", "float", "int", "long", "short", "boolean", "void" };
+        String characters = "BCDFIJSZV";
+        for (int i = 0; i < names.length; i++) {
+            PRIMITIVES[characters.charAt(i) - 'A'] = names[i];
+        }
+    }
+
+    /**
+     * Basic constructor.
+     */
+    public SignatureDecoder() {
+        argumentSpans = new int[8];
+    }
+
+    /**
+     * Decodes a complete type signature.
+     * @param signature is the type signature.
+     * @return the decoder itself, which grants access to the result.
+     */
+    public SignatureDecoder decode(String signature) {
+        return decode(signature, 0, signature.length());
+    }
+
+    /**
+     * Decodes a type signature that is part of a longer string, e.g. a type argument of another signature.
+     * @param signature is the string that contains the type signature.
+     * @param start is the index of the first character of the type signature.
+     * @param end is the index after the last character of the type signature.
+     * @return the decoder itself, which grants access to the result.
+     * @throws IllegalArgumentException if the span is not a valid type signature.
+     */
+    public SignatureDecoder decode(String signature, int start, int end) {
+        this.signature = signature;
+        this.end = end;
+        erasure = null;
+        argumentCount = 0;
+        segmentedGenerics = false;
+        genericStart = -1;
+        int index = start;
+        arrayCount = 0;
+        while (index < end && signature.charAt(index) == '[') {
+            arrayCount++;
+            index++;
+        }
+        index = decodeWildcard(index);
+        boundArrayCount = 0;
+        while (index < end && signature.charAt(index) == '[') {
+            boundArrayCount++;
+            index++;
+        }
+        if (index >= end) {
+            throw new IllegalArgumentException("Invalid type signature: " + signature.substring(start, end));
+        }
+        kind = signature.charAt(index);
+        if (kind == 'L' || kind == 'Q') {
+            decodeClassType(index + 1);
+        } else if (kind == 'T') {
+            nameStart = index + 1;
+            nameEnd = signature.indexOf(';', nameStart);
+        } else if (kind != '*') {
+            nameStart = index;
+            nameEnd = index + 1;
+        }
+        return this;
+    }
+
+    /**
+     * Accessor for the number of type arguments. If the signature is a nested type, these are the type arguments of
+     * the innermost type.
+     * @return the number of type arguments.
+     */
+    public int getArgumentCount() {
+        return argumentCount;
+    }
+
+    /**
+     * Returns the index after the last character of a type argument in the decoded string.
+     * @param argument is the index of the type argument.
+     * @return the end index.
+     */
+    public int getArgumentEnd(int argument) {
+        return argumentSpans[argument * 2 + 1];
+    }
+
+    /**
+     * Returns the index of the first character of a type argument in the decoded string.
+     * @param argument is the index of the type argument.
+     * @return the start index.
+     */
+    public int getArgumentStart(int argument) {
+        return argumentSpans[argument * 2];
+    }
+
+    /**
+     * Accessor for the number of array dimensions of the signature, e.g. 2 for <code>[[I</code>.
+     * @return the array dimensions.
+     */
+    public int getArrayCount() {
+        return arrayCount;
+    }
+
+    /**
+     * Returns the type name without type arguments as it is written in the signature. This is the qualified name for
+     * resolved signatures, e.g. "java.util.List", and the name from the source code for unresolved signatures, e.g.
+     * "List" or "Map.Entry". Primitive types return their keyword and wildcards return "?".
+     * @return the erased type name.
+     */
+    public String getErasure() {
+        if (erasure == null) { // lazy, most unresolved signatures only need the simple name
+            if (kind == '*') {
+                erasure = "?";
+            } else if (kind != 'L' && kind != 'Q' && kind != 'T') {
+                String primitive = kind >= 'A' && kind <= 'Z' ? PRIMITIVES[kind - 'A'] : null;
+                erasure = primitive == null ? signature.substring(nameStart, end) : primitive; // keep unknown kinds
+            } else if (segmentedGenerics) {
+                erasure = removeArguments(nameStart, nameEnd);
+            } else {
+                erasure = signature.substring(nameStart, genericStart < 0 ? nameEnd : genericStart);
+            }
+        }
+        return erasure;
+    }
+
+    /**
+     * Accessor for the decoded string, which contains the type arguments at their spans.
+     * @return the decoded string.
+     */
+    public String getSignature() {
+        return signature;
+    }
+
+    /**
+     * Returns the type name without qualification and type arguments, e.g. "List" for
+     * <code>Ljava.util.List&lt;Ljava.lang.String;&gt;;</code>. Binary names of nested types keep their enclosing type,
+     * e.g. "Map.Entry" for <code>Ljava.util.Map$Entry;</code>. Array dimensions of a wildcard bound are appended.
+     * @return the simple type name.
+     */
+    public String getSimpleName() {
+        String name = getErasure();
+        String simpleName = name.substring(name.lastIndexOf('.') + 1).replace('$', '.');
+        for (int i = 0; i < boundArrayCount; i++) {
+            simpleName += "[]";
+        }
+        return simpleName;
+    }
+
+    /**
+     * Accessor for the wildcard kind of the signature.
+     * @return the {@link WildcardStatus}.
+     */
+    public WildcardStatus getWildcardStatus() {
+        return wildcardStatus;
+    }
+
+    /**
+     * Checks whether the signature is an unresolved class type, which means its name is not qualified. Like for the
+     * element type of <code>Signature.getElementType()</code>, an array bound of a wildcard is not unresolved.
+     * @return true if it is.
+     */
+    public boolean isUnresolved() {
+        return kind == 'Q' && boundArrayCount == 0;
+    }
+
+    /**
+     * Stores the span of a type argument and grows the span array if necessary.
+     */
+    private void addArgument(int start, int end) {
+        if (argumentCount * 2 + 2 > argumentSpans.length) {
+            argumentSpans = Arrays.copyOf(argumentSpans, argumentSpans.length * 2);
+        }
+        argumentSpans[argumentCount * 2] = start;
+        argumentSpans[argumentCount * 2 + 1] = end;
+        argumentCount++;
+    }
+
+    /**
+     * Decodes the name and the type arguments of a class type signature, starting behind the 'L' or 'Q'.
+     */
+    private void decodeClassType(int start) {
+        nameStart = start;
+        int index = start;
+        while (index < end) {
+            char character = signature.charAt(index);
+            if (character == ';') {
+                nameEnd = index;
+                return;
+            } else if (character == '<') {
+                genericStart = genericStart < 0 ? index : genericStart;
+                argumentCount = 0; // only the arguments of the innermost type count
+                index++;
+                while (signature.charAt(index) != '>') {
+                    int argumentEnd = skipType(index);
+                    addArgument(index, argumentEnd);
+                    index = argumentEnd;
+                }
+            } else if (character == '.' && signature.charAt(index - 1) == '>') {
+                segmentedGenerics = true; // outer type had type arguments
+                argumentCount = 0; // which do not belong to the innermost type
+            }
+            index++;
+        }
+        throw new IllegalArgumentException("Unterminated type signature: " + signature.substring(start - 1, end));
+    }
+
+    /**
+     * Decodes a leading wildcard and returns the index behind it.
+     */
+    private int decodeWildcard(int index) {
+        char character = index < end ? signature.charAt(index) : 0;
+        if (character == '*') {
+            wildcardStatus = WildcardStatus.UNBOUND;
+            return index; // the wildcard is the type itself
+        } else if (character == '+') {
+            wildcardStatus = WildcardStatus.UPPER_BOUND;
+            return index + 1;
+        } else if (character == '-') {
+            wildcardStatus = WildcardStatus.LOWER_BOUND;
+            return index + 1;
+        }
+        wildcardStatus = WildcardStatus.NO_WILDCARD;
+        return index;
+    }
+
+    /**
+     * Copies the name between two indices without the type arguments of its segments.
+     */
+    private String removeArguments(int start, int end) {
+        StringBuilder builder = new StringBuilder(end - start);
+        int depth = 0;
+        for (int i = start; i < end; i++) {
+            char character = signature.charAt(i);
+            if (character == '<') {
+                depth++;
+            } else if (character == '>') {
+                depth--;
+            } else if (depth == 0) {
+                builder.append(character);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Skips a complete type signature and returns the index behind it.
+     */
+    private int skipType(int start) {
+        int index = start;
+        char character = signature.charAt(index);
+        while (character == '[' || character == '+' || character == '-' || character == '!') { // prefixes
+            character = signature.charAt(++index);
+        }
+        if (character == 'L' || character == 'Q' || character == 'T') {
+            int depth = 0;
+            while (true) {
+                character = signature.charAt(++index);
+                if (character == '<') {
+                    depth++;
+                } else if (character == '>') {
+                    depth--;
+                } else if (character == ';' && depth == 0) {
+                    return index + 1;
+                }
+            }
+        }
+        return index + 1; // primitive type or unbound wildcard
+    }
+}
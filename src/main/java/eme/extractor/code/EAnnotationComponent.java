@@ -1,11 +1,31 @@
 package eme.extractor.code;
 
+import java.io.IOException;
+import java.util.Map;
+
+import org.eclipse.emf.ecore.EAnnotation;
+import org.eclipse.emf.ecore.EModelElement;
+
+/**
+ * Writes the {@link EAnnotation}s of a model element as line comments.
+ */
 public class EAnnotationComponent extends EComponent {
+	
+	private EModelElement element;
+	
+	public EAnnotationComponent(EModelElement element) {
+		this.element = element;
+	}
 
 	@Override
-	public String generateEComponentText() {
-		// TODO Auto-generated method stub
-		return null;
+	public void write(Appendable output) throws IOException {
+		for (EAnnotation annotation : element.getEAnnotations()) {
+			output.append("// ").append(annotation.getSource());
+			for (Map.Entry<String, String> detail : annotation.getDetails()) {
+				output.append(' ').append(detail.getKey()).append('=').append(detail.getValue());
+			}
+			output.append('\n');
+		}
 	}
 
 }
@@ -1,7 +1,11 @@
 package eme.extractor.code;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
+/**
+ * Writes the attributes of a class as fields.
+ */
 public class EAttributeDecorator extends EComponentDecorator {
 	
 	private ArrayList<EAttribute> fieldStrings = new ArrayList<>();
@@ -9,7 +13,6 @@ public class EAttributeDecorator extends EComponentDecorator {
 	
 	public EAttributeDecorator(EComponent eComponent) {
 		super(eComponent);
-		// TODO Auto-generated constructor stub
 	}
 	
 	public void addField(EAttribute eAttribute) {
@@ -21,13 +24,11 @@ public class EAttributeDecorator extends EComponentDecorator {
 	}
 
 	@Override
-	public String generateEComponentText() {
-		String fields = "";
-		for(EAttribute eAttr : fieldStrings) {
-			fields += eAttr.getAttributeModifier() + " " + eAttr.getAttributeDataType() + " " + 
-					eAttr.getAttributeName() + ";" + eComponent.generateEComponentText();
+	protected void writeDecoration(Appendable output) throws IOException {
+		for (EAttribute eAttr : fieldStrings) {
+			output.append('\t').append(eAttr.getAttributeModifier()).append(eAttr.getAttributeDataType()).append(' ');
+			output.append(eAttr.getAttributeName()).append(";\n");
 		}
-		return fields;
 	}
 	
 
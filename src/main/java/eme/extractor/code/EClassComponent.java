@@ -1,22 +1,43 @@
 package eme.extractor.code;
 
-import org.eclipse.emf.ecore.EClassifier;
+import java.io.IOException;
 
-public class EClassComponent extends EComponent {
-	
-	private EClassifier eClassifier;
+import org.eclipse.emf.ecore.EClass;
+
+/**
+ * Writes the annotations and the header of a class or an interface.
+ */
+public class EClassComponent extends EComponentDecorator {
 	
-	public EClassComponent() {
-		// TODO Auto-generated constructor stub
-	}
+	private EClass eClass;
 	
-	public void setEClassifier(EClassifier eClassifier) {
-		this.eClassifier = eClassifier;
+	public EClassComponent(EClass eClass) {
+		super(new EAnnotationComponent(eClass));
+		this.eClass = eClass;
 	}
 
 	@Override
-	public String generateEComponentText() {
-		return "class " + eClassifier.getName();
+	protected void writeDecoration(Appendable output) throws IOException {
+		output.append("public ");
+		if (eClass.isInterface()) {
+			output.append("interface ").append(eClass.getName());
+			writeSuperTypes(output, " extends ", true);
+		} else {
+			output.append(eClass.isAbstract() ? "abstract class " : "class ").append(eClass.getName());
+			writeSuperTypes(output, " extends ", false);
+			writeSuperTypes(output, " implements ", true);
+		}
+		output.append(" {\n");
+	}
+	
+	private void writeSuperTypes(Appendable output, String keyword, boolean interfaces) throws IOException {
+		String separator = keyword;
+		for (EClass superType : eClass.getESuperTypes()) {
+			if (superType.isInterface() == interfaces) {
+				output.append(separator).append(superType.getName());
+				separator = ", ";
+			}
+		}
 	}
 
 }
@@ -1,12 +1,12 @@
 package eme.extractor.code;
 
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.lang.reflect.Method;
-import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
 
+import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.EStructuralFeature;
 
 import eme.model.ExtractedMethod;
 import eme.model.ExtractedType;
@@ -14,57 +14,55 @@ import eme.model.datatypes.ExtractedField;
 
 public class EClassFile extends JavaType {
 	
-	private EClassComponent eComponent = new EClassComponent();
-	
 	private EAttributeDecorator eAttributeDecorator;
 	
-	private EOperationDecorator eOperationDecorator;
+	private EReferenceComponent eReferenceComponent;
 	
-	private String output = "";
+	private EOperationDecorator eOperationDecorator;
 		
 	public EClassFile(EClassifier eClassifier, ExtractedType extractedType) {
 		super(eClassifier, extractedType);
 	}
 
 	@Override
-	public String generateEFile() {
-		eComponent.setEClassifier(eClassifier);
+	protected EComponent createComponent() {
 		generateFields();
 		generateMethods();
-		output = eOperationDecorator.generateEComponentText();
-		System.out.println(output);
-		 try {
-		      File file = new File("e_classes.txt");
-		      file.createNewFile();
-		      FileWriter writer = new FileWriter("e_classes.txt");
-		      writer.write(output);
-		      writer.close();
-		    } catch (IOException e) {
-		      e.printStackTrace();
-		    }
-		
-		return null;
+		return eOperationDecorator;
 	}
 	
 	private void generateFields() {
-		eAttributeDecorator = new EAttributeDecorator(eComponent);
-		for(ExtractedField field : extractedType.getFields()) {
-			EAttribute eAttribute = new EAttribute(field.getIdentifier(), field.getType(), field.getModifier().toString());
-			eAttributeDecorator.addField(eAttribute);
+		EClass eClass = (EClass) eClassifier;
+		eAttributeDecorator = new EAttributeDecorator(new EClassComponent(eClass));
+		eReferenceComponent = new EReferenceComponent(eAttributeDecorator);
+		Set<String> referenceNames = new HashSet<>();
+		for (EStructuralFeature feature : eClass.getEStructuralFeatures()) { // own features only, no derived caches
+			if (feature instanceof EReference) {
+				referenceNames.add(feature.getName());
+			}
+		}
+		for (ExtractedField field : extractedType.getFields()) {
+			EAttribute eAttribute = new EAttribute(field.getIdentifier(), field.getTypeString(), EComponent.toKeyword(field.getModifier()));
+			if (referenceNames.contains(field.getIdentifier())) {
+				eReferenceComponent.addReference(eAttribute);
+			} else {
+				eAttributeDecorator.addField(eAttribute);
+			}
 		}
 	}
 	
 	private void generateMethods() {
-		eOperationDecorator = new EOperationDecorator(eAttributeDecorator);
-		for(ExtractedMethod method : extractedType.getMethods()) {
+		eOperationDecorator = new EOperationDecorator(eReferenceComponent, ((EClass) eClassifier).isInterface());
+		for (ExtractedMethod method : extractedType.getMethods()) {
 			String returnType = "";
-			if(method.getReturnType() == null) {
+			if (method.getReturnType() == null) {
 				returnType = "void";
 			} else {
-				returnType = method.getReturnType().toString();
+				returnType = method.getReturnType().getTypeString();
 			}
-			EMethod eMethod = new EMethod(method.getName(), method.getModifier().name(), returnType);
+			EMethod eMethod = new EMethod(method.getName(), EComponent.toKeyword(method.getModifier()), returnType);
 			eMethod.addAllParameters(method.getParameters());
+			eMethod.setAbstract(method.isAbstract());
 			eOperationDecorator.addOperation(eMethod);
 		}
 	}
@@ -1,7 +1,33 @@
 package eme.extractor.code;
 
+import java.io.IOException;
+
+import eme.model.datatypes.AccessLevelModifier;
+
+/**
+ * Component of the Java code of a classifier. Components write their code straight to an {@link Appendable}, which
+ * means the code of a classifier is streamed instead of concatenated.
+ */
 public abstract class EComponent {
 	
-	public abstract String generateEComponentText();
+	/**
+	 * Writes the code of the component.
+	 * @param output is the {@link Appendable} the code is written to.
+	 * @throws IOException if the output can not be written.
+	 */
+	public abstract void write(Appendable output) throws IOException;
+	
+	/**
+	 * Returns the Java keyword of an access level modifier, followed by a space, or an empty string for the default
+	 * modifier.
+	 * @param modifier is the {@link AccessLevelModifier}.
+	 * @return the keyword.
+	 */
+	public static String toKeyword(AccessLevelModifier modifier) {
+		if (modifier == null || modifier == AccessLevelModifier.NO_MODIFIER) {
+			return "";
+		}
+		return modifier.name().toLowerCase() + " ";
+	}
 
 }
@@ -1,11 +1,12 @@
 package eme.extractor.code;
 
-import java.util.ArrayList;
+import java.io.IOException;
 
+/**
+ * Decorator of an {@link EComponent}. The decorator writes the decorated component first, then its own code.
+ */
 public abstract class EComponentDecorator extends EComponent {
 	
-	private ArrayList<EComponent> eComponents;
-	
 	protected EComponent eComponent;
 	
 	public EComponentDecorator(EComponent eComponent) {
@@ -13,8 +14,16 @@ public abstract class EComponentDecorator extends EComponent {
 	}
 	
 	@Override
-	public String generateEComponentText() {
-		return eComponent.generateEComponentText();
+	public void write(Appendable output) throws IOException {
+		eComponent.write(output);
+		writeDecoration(output);
 	}
+	
+	/**
+	 * Writes the code of the decorator itself.
+	 * @param output is the {@link Appendable} the code is written to.
+	 * @throws IOException if the output can not be written.
+	 */
+	protected abstract void writeDecoration(Appendable output) throws IOException;
 
 }
@@ -1,15 +1,24 @@
 package eme.extractor.code;
 
-public class EEnumComponent extends EComponent {
-	
-	public EEnumComponent() {
+import java.io.IOException;
+
+import org.eclipse.emf.ecore.EEnum;
 
+/**
+ * Writes the annotations and the header of an enumeration.
+ */
+public class EEnumComponent extends EComponentDecorator {
+	
+	private EEnum eEnum;
+	
+	public EEnumComponent(EEnum eEnum) {
+		super(new EAnnotationComponent(eEnum));
+		this.eEnum = eEnum;
 	}
 
 	@Override
-	public String generateEComponentText() {
-		// TODO Auto-generated method stub
-		return null;
+	protected void writeDecoration(Appendable output) throws IOException {
+		output.append("public enum ").append(eEnum.getName()).append(" {\n");
 	}
 	
 }
@@ -1,26 +1,30 @@
 package eme.extractor.code;
 
 import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EEnum;
+import org.eclipse.emf.ecore.EEnumLiteral;
 
 import eme.model.ExtractedType;
 
 public class EEnumFile extends JavaType {
 	
-	EComponent eComponent = new EEnumComponent();
+	private EEnumLiteralDecorator eEnumLiteralDecorator;
 
 	public EEnumFile(EClassifier eClassifier, ExtractedType extractedType) {
 		super(eClassifier, extractedType);
-		// TODO Auto-generated constructor stub
 	}
 	
 	private void generateLiterals() {
-		
+		eEnumLiteralDecorator = new EEnumLiteralDecorator(new EEnumComponent((EEnum) eClassifier));
+		for (EEnumLiteral literal : ((EEnum) eClassifier).getELiterals()) {
+			eEnumLiteralDecorator.addLiteral(literal);
+		}
 	}
 
 	@Override
-	public String generateEFile() {
+	protected EComponent createComponent() {
 		generateLiterals();
-		return null;
+		return eEnumLiteralDecorator;
 	}
 
 }
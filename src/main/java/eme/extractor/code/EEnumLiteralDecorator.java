@@ -1,10 +1,33 @@
 package eme.extractor.code;
 
-public class EEnumLiteralDecorator extends EComponent {
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.emf.ecore.EEnumLiteral;
+
+/**
+ * Writes the literals of an enumeration as enumeration constants.
+ */
+public class EEnumLiteralDecorator extends EComponentDecorator {
+	
+	private List<EEnumLiteral> literals = new ArrayList<>();
+	
+	public EEnumLiteralDecorator(EComponent eComponent) {
+		super(eComponent);
+	}
+	
+	public void addLiteral(EEnumLiteral literal) {
+		literals.add(literal);
+	}
 
 	@Override
-	public String generateEComponentText() {
-		// TODO Auto-generated method stub
-		return null;
+	protected void writeDecoration(Appendable output) throws IOException {
+		String separator = "\t";
+		for (EEnumLiteral literal : literals) {
+			output.append(separator).append(literal.getName());
+			separator = ", ";
+		}
+		output.append(";\n");
 	}
 }
@@ -13,6 +13,8 @@ public class EMethod {
 	
 	private String name;
 	
+	private boolean isAbstract;
+	
 	private ArrayList<ExtractedParameter> parameters = new ArrayList<>();
 	
 	public EMethod(String name, String modifier, String returnType) {
@@ -44,5 +46,13 @@ public class EMethod {
 	public ArrayList<ExtractedParameter> getParameters() {
 		return parameters;
 	}
+	
+	public boolean isAbstract() {
+		return isAbstract;
+	}
+	
+	public void setAbstract(boolean isAbstract) {
+		this.isAbstract = isAbstract;
+	}
 
 }
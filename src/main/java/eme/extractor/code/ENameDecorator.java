@@ -1,11 +0,0 @@
-package eme.extractor.code;
-
-public class ENameDecorator extends EComponent {
-
-	@Override
-	public String generateEComponentText() {
-
-		return null;
-	}
-
-}
@@ -1,15 +1,22 @@
 package eme.extractor.code;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 import eme.model.datatypes.ExtractedParameter;
 
+/**
+ * Writes the operations of a class as methods. Abstract methods and all methods of an interface have no body.
+ */
 public class EOperationDecorator extends EComponentDecorator {
 	
+	private boolean isInterface;
+	
 	private ArrayList<EMethod> methodList = new ArrayList<>();
 	
-	public EOperationDecorator(EComponent eComponent) {
+	public EOperationDecorator(EComponent eComponent, boolean isInterface) {
 		super(eComponent);
+		this.isInterface = isInterface;
 	}
 	
 	public void addOperation(EMethod eMethod) {
@@ -21,16 +28,17 @@ public class EOperationDecorator extends EComponentDecorator {
 	}
 
 	@Override
-	public String generateEComponentText() {
-		String methods = "";
-		for(EMethod eMethod : methodList) {
-			methods += eMethod.getModifier() + " " + eMethod.getReturnType() + " " + eMethod.getName() + "(";
-			for(ExtractedParameter parameter : eMethod.getParameters()) {
-				methods += parameter.getType() + " " + parameter.getIdentifier() + ", ";
+	protected void writeDecoration(Appendable output) throws IOException {
+		for (EMethod eMethod : methodList) {
+			output.append("\n\t").append(eMethod.getModifier()).append(eMethod.getReturnType()).append(' ');
+			output.append(eMethod.getName()).append('(');
+			String separator = "";
+			for (ExtractedParameter parameter : eMethod.getParameters()) {
+				output.append(separator).append(parameter.getTypeString()).append(' ').append(parameter.getIdentifier());
+				separator = ", ";
 			}
-			methods += ") {}";
+			output.append(isInterface || eMethod.isAbstract() ? ");\n" : ") {\n\t}\n");
 		}
-		return methods + eComponent.generateEComponentText();
 	}
 
 }
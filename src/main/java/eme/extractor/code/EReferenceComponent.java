@@ -1,11 +1,32 @@
 package eme.extractor.code;
 
-public class EReferenceComponent extends EComponent {
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * Writes the references of a class as fields, separated from the attributes by an empty line.
+ */
+public class EReferenceComponent extends EComponentDecorator {
+	
+	private ArrayList<EAttribute> references = new ArrayList<>();
+	
+	public EReferenceComponent(EComponent eComponent) {
+		super(eComponent);
+	}
+	
+	public void addReference(EAttribute reference) {
+		references.add(reference);
+	}
 
 	@Override
-	public String generateEComponentText() {
-		// TODO Auto-generated method stub
-		return null;
+	protected void writeDecoration(Appendable output) throws IOException {
+		if (!references.isEmpty()) {
+			output.append('\n');
+		}
+		for (EAttribute reference : references) {
+			output.append('\t').append(reference.getAttributeModifier()).append(reference.getAttributeDataType()).append(' ');
+			output.append(reference.getAttributeName()).append(";\n");
+		}
 	}
 
 }
@@ -1,9 +1,19 @@
 package eme.extractor.code;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EEnum;
+import org.eclipse.emf.ecore.EPackage;
 
 import eme.model.ExtractedType;
 
+/**
+ * Java source file of a classifier. The package of the file is the {@link EPackage} path of the classifier without the
+ * root package, which means inner types are placed in their inner type packages.
+ */
 public abstract class JavaType {
 	
 	protected EClassifier eClassifier;
@@ -15,6 +25,70 @@ public abstract class JavaType {
 		this.extractedType = extractedType;
 	}
 	
-	public abstract String generateEFile();
+	/**
+	 * Creates the Java source file of a classifier.
+	 * @param eClassifier is the {@link EClass} or {@link EEnum}.
+	 * @param extractedType is the {@link ExtractedType} of the classifier.
+	 * @return the Java source file or null if the classifier is neither an {@link EClass} nor an {@link EEnum}.
+	 */
+	public static JavaType create(EClassifier eClassifier, ExtractedType extractedType) {
+		if (eClassifier instanceof EClass) {
+			return new EClassFile(eClassifier, extractedType);
+		} else if (eClassifier instanceof EEnum) {
+			return new EEnumFile(eClassifier, extractedType);
+		}
+		return null;
+	}
+	
+	/**
+	 * Returns the package name of the file, which is empty for classifiers in the root package.
+	 * @return the package name.
+	 */
+	public String getPackageName() {
+		StringBuilder packageName = new StringBuilder();
+		EPackage ePackage = eClassifier.getEPackage();
+		while (ePackage != null && ePackage.getESuperPackage() != null) { // root package is not part of the name
+			String name = ePackage.getName();
+			packageName.insert(0, packageName.length() == 0 ? name : name + '.');
+			ePackage = ePackage.getESuperPackage();
+		}
+		return packageName.toString();
+	}
+	
+	/**
+	 * Resolves the path of the file in an output directory.
+	 * @param directory is the output directory.
+	 * @return the path of the file.
+	 */
+	public Path resolve(Path directory) {
+		Path packageDirectory = directory;
+		String packageName = getPackageName();
+		if (!packageName.isEmpty()) {
+			for (String name : packageName.split("\\.")) {
+				packageDirectory = packageDirectory.resolve(name);
+			}
+		}
+		return packageDirectory.resolve(eClassifier.getName() + ".java");
+	}
+	
+	/**
+	 * Writes the code of the file.
+	 * @param output is the {@link Appendable} the code is written to.
+	 * @throws IOException if the output can not be written.
+	 */
+	public void write(Appendable output) throws IOException {
+		String packageName = getPackageName();
+		if (!packageName.isEmpty()) {
+			output.append("package ").append(packageName).append(";\n\n");
+		}
+		createComponent().write(output);
+		output.append("}\n");
+	}
+	
+	/**
+	 * Creates the component chain of the file.
+	 * @return the outermost {@link EComponent}.
+	 */
+	protected abstract EComponent createComponent();
 
 }
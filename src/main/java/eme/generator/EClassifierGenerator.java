@@ -1,6 +1,9 @@
 package eme.generator;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.log4j.LogManager;
@@ -10,12 +13,16 @@ import org.eclipse.emf.ecore.EClassifier;
 import org.eclipse.emf.ecore.EEnum;
 import org.eclipse.emf.ecore.EEnumLiteral;
 import org.eclipse.emf.ecore.EGenericType;
+import org.eclipse.emf.ecore.EOperation;
 import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EStructuralFeature;
 import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 
-import eme.extractor.code.EClassFile;
-import eme.extractor.code.JavaType;
 import eme.generator.hierarchies.ExternalTypeHierarchy;
+import eme.metrics.ExtractionEvent;
+import eme.metrics.ExtractionEvents;
+import eme.metrics.ExtractionMetrics;
 import eme.model.ExtractedClass;
 import eme.model.ExtractedEnum;
 import eme.model.ExtractedEnumConstant;
@@ -23,19 +30,27 @@ import eme.model.ExtractedInterface;
 import eme.model.ExtractedType;
 import eme.model.IntermediateModel;
 import eme.model.datatypes.ExtractedDataType;
+import eme.properties.BinaryProperty;
 
 /**
- * Generator class for Ecore classifiers ({@link EClassifier}s).
+ * Generator class for Ecore classifiers ({@link EClassifier}s). The {@link EClass}es are completed in the order in
+ * which they were generated, which means the same model always results in the same metamodel. The members of the
+ * {@link EClass}es are generated detached from their classes and then attached in that order. If the bulk generation
+ * is enabled, new {@link EClass}es do not deliver notifications until they are completed, except for changes of their
+ * super types. This saves the notifications to the super type adapters of EMF, while the derived features of the
+ * classes, e.g. all structural features, are only computed lazily after the completion. After the completion, the classifiers of single
+ * types can be removed, added and generated again, which allows to update a metamodel in place.
  * @author Timur Saglam
  */
 public class EClassifierGenerator {
     private static final Logger logger = LogManager.getLogger(EClassifierGenerator.class.getName());
     private final Map<EClass, ExtractedType> bareEClasses;
+    private final boolean bulk;
     private final Map<String, EClassifier> eClassifierMap;
     private final EcoreFactory ecoreFactory;
     private final ExternalTypeHierarchy externalTypes;
     private final EMemberGenerator memberGenerator;
-    private final IntermediateModel model;
+    private IntermediateModel model;
     private final SelectionHelper selector;
     private final EDataTypeGenerator typeGenerator;
 
@@ -44,41 +59,47 @@ public class EClassifierGenerator {
      * @param model is the {@link IntermediateModel} which is used to extract a metamodel.
      * @param root is the root {@link EPackage} of the metamodel.
      * @param selector is the {@link SelectionHelper} instance.
+     * @param metrics are the {@link ExtractionMetrics} of the extraction.
      */
-    public EClassifierGenerator(IntermediateModel model, EPackage root, SelectionHelper selector) {
+    public EClassifierGenerator(IntermediateModel model, EPackage root, SelectionHelper selector, ExtractionMetrics metrics) {
         this.model = model;
         this.selector = selector;
+        bulk = selector.getProperties().get(BinaryProperty.BULK_GENERATION);
         ecoreFactory = EcoreFactory.eINSTANCE;
         eClassifierMap = new HashMap<String, EClassifier>();
-        bareEClasses = new HashMap<EClass, ExtractedType>();
+        bareEClasses = new LinkedHashMap<EClass, ExtractedType>(); // keeps generation order
         externalTypes = new ExternalTypeHierarchy(root, selector.getProperties());
-        typeGenerator = new EDataTypeGenerator(model, eClassifierMap, externalTypes);
+        typeGenerator = new EDataTypeGenerator(model, eClassifierMap, externalTypes, metrics);
         memberGenerator = new EMemberGenerator(typeGenerator, selector, eClassifierMap);
     }
 
     /**
-     * Completes the generation of the {@link EClassifier} objects. Adds methods and attributes to {@link EClass}
-     * objects, adds type parameters and super interfaces and sorts the external types.
+     * Completes the generation of the {@link EClassifier} objects that were generated since the last completion. Adds
+     * methods and attributes to {@link EClass} objects, adds type parameters and super interfaces and sorts the external
+     * types. The type parameters and super interfaces are added first, because they can create new classifiers. Then
+     * the members of all classes are generated.
      */
     public void completeEClassifiers() {
-        for (EClass eClass : bareEClasses.keySet()) { // for every generated EClass
+        List<EClass> eClasses = new ArrayList<EClass>(bareEClasses.keySet());
+        for (EClass eClass : eClasses) { // for every generated EClass
             ExtractedType extractedType = bareEClasses.get(eClass);
             typeGenerator.addTypeParameters(eClass, extractedType); // IMPORTANT: call after EClassifiers are created.
-            memberGenerator.addFields(extractedType, eClass); // add attributes
-            memberGenerator.addOperations(extractedType, eClass); // add methods
             addSuperInterfaces(extractedType, eClass); // IMPORTANT: needs to be called after type parameters are built
-            generateEcoreCode(eClass, extractedType);
-            System.out.println(eClass.getName());
-            System.out.println(eClass.getEAllStructuralFeatures());
         }
+        List<EClassMembers> members = generateMembers(eClasses);
+        for (int i = 0; i < eClasses.size(); i++) { // attach members in the order of the classes
+            EClass eClass = eClasses.get(i);
+            eClass.getEStructuralFeatures().addAll(members.get(i).features); // add attributes
+            eClass.getEOperations().addAll(members.get(i).operations); // add methods
+        }
+        if (bulk) { // metamodel is complete, turn notifications back on
+            for (EClass eClass : bareEClasses.keySet()) {
+                eClass.eSetDeliver(true);
+            }
+        }
+        bareEClasses.clear(); // all classes are completed
         externalTypes.sort();
     }
-    
-    private void generateEcoreCode(EClass eClass, ExtractedType type) {
-    	JavaType javaType = new EClassFile(eClass, type);
-    	javaType.generateEFile();
-    	
-    }
 
     /**
      * Generates a dummy {@link EClassifier}, which is a simple {@link EClass}.
@@ -117,6 +138,89 @@ public class EClassifierGenerator {
         return eClassifier;
     }
 
+    /**
+     * Returns the generated {@link EClass}es and {@link EEnum}s and the {@link ExtractedType}s they were generated from.
+     * @return the map of {@link EClassifier}s to {@link ExtractedType}s.
+     */
+    public Map<EClassifier, ExtractedType> getGeneratedEClassifiers() {
+        Map<EClassifier, ExtractedType> generated = new LinkedHashMap<EClassifier, ExtractedType>();
+        for (Map.Entry<String, EClassifier> entry : eClassifierMap.entrySet()) {
+            generated.put(entry.getValue(), model.getType(entry.getKey()));
+        }
+        return generated;
+    }
+
+    /**
+     * Checks whether an {@link EClassifier} was generated for an {@link ExtractedType}.
+     * @param type is the {@link ExtractedType}.
+     * @return true if there is an {@link EClassifier} with the full name of the type.
+     */
+    public boolean isGenerated(ExtractedType type) {
+        return eClassifierMap.containsKey(type.getFullName());
+    }
+
+    /**
+     * Prepares the generator for an update of its metamodel from a new version of the {@link IntermediateModel}.
+     * @param newModel is the new version of the {@link IntermediateModel}.
+     * @param metrics are the {@link ExtractionMetrics} of the update.
+     */
+    public void prepareUpdate(IntermediateModel newModel, ExtractionMetrics metrics) {
+        model = newModel;
+        typeGenerator.prepareUpdate(newModel, metrics);
+    }
+
+    /**
+     * Generates the {@link EClassifier} of a changed {@link ExtractedType} again, in place. The content of the
+     * classifier is removed and generated again, while the classifier itself stays in its package and other elements
+     * keep referencing it. An {@link EClass} is completed with the next completion. The kind of the type must not have
+     * changed. The notifications stay on even in bulk mode, because the super type adapters of the existing subtypes
+     * have to see the new members to reset their cached lists, like the one of getEAllStructuralFeatures.
+     * @param type is the new version of the {@link ExtractedType}.
+     * @return the {@link EClassifier}.
+     */
+    public EClassifier regenerateEClassifier(ExtractedType type) {
+        EClassifier eClassifier = eClassifierMap.get(type.getFullName());
+        eClassifier.getETypeParameters().clear();
+        if (eClassifier instanceof EEnum) {
+            EEnum eEnum = (EEnum) eClassifier;
+            eEnum.getELiterals().clear();
+            addLiterals(eEnum, (ExtractedEnum) type);
+            typeGenerator.addTypeParameters(eEnum, type);
+        } else {
+            EClass eClass = (EClass) eClassifier;
+            eClass.getEStructuralFeatures().clear(); // notifies the super type adapters of the subtypes
+            eClass.getEOperations().clear();
+            eClass.getEGenericSuperTypes().clear();
+            boolean isInterface = type.getClass() == ExtractedInterface.class;
+            eClass.setAbstract(isInterface || ((ExtractedClass) type).isAbstract());
+            bareEClasses.put(eClass, type); // finish building later
+            if (!isInterface) {
+                addSuperClass((ExtractedClass) type, eClass);
+            }
+        }
+        return eClassifier;
+    }
+
+    /**
+     * Removes the {@link EClassifier} of an {@link ExtractedType} from its package. Elements that reference the
+     * classifier have to be generated again.
+     * @param type is the {@link ExtractedType} whose {@link EClassifier} is removed.
+     */
+    public void removeEClassifier(ExtractedType type) {
+        EClassifier eClassifier = eClassifierMap.remove(type.getFullName());
+        if (eClassifier != null) {
+            EcoreUtil.remove(eClassifier);
+        }
+    }
+
+    /**
+     * Removes the external data types that are not used anymore from the metamodel.
+     * @param root is the root {@link EPackage} of the metamodel.
+     */
+    public void removeUnusedDataTypes(EPackage root) {
+        typeGenerator.removeUnusedExternalTypes(root);
+    }
+
     /**
      * Generates a root container {@link EClassifier}, which is a simple {@link EClass} with a root container
      * containment reference.
@@ -129,6 +233,18 @@ public class EClassifierGenerator {
         return rootContainer;
     }
 
+    /**
+     * Adds the literals of an {@link ExtractedEnum} to an {@link EEnum}.
+     */
+    private void addLiterals(EEnum eEnum, ExtractedEnum extractedEnum) {
+        for (ExtractedEnumConstant enumeral : extractedEnum.getConstants()) { // for very Enumeral
+            EEnumLiteral literal = ecoreFactory.createEEnumLiteral(); // create literal
+            literal.setName(enumeral.getName()); // set name.
+            literal.setValue(eEnum.getELiterals().size()); // set ordinal.
+            eEnum.getELiterals().add(literal); // add literal to enum.
+        }
+    }
+
     /**
      * Adds the super class of an extracted class to a specific {@link EClass}. If the extracted class has no super
      * class, no EClass is added.
@@ -175,6 +291,7 @@ public class EClassifierGenerator {
         EClass eClass = ecoreFactory.createEClass(); // build object
         eClass.setAbstract(isAbstract);
         eClass.setInterface(isInterface);
+        eClass.eSetDeliver(!bulk); // no notifications until completed in bulk mode
         bareEClasses.put(eClass, extractedType); // finish building later
         return eClass;
     }
@@ -184,26 +301,63 @@ public class EClassifierGenerator {
      */
     private EEnum generateEEnum(ExtractedEnum extractedEnum) {
         EEnum eEnum = ecoreFactory.createEEnum(); // create EEnum
-        for (ExtractedEnumConstant enumeral : extractedEnum.getConstants()) { // for very Enumeral
-            EEnumLiteral literal = ecoreFactory.createEEnumLiteral(); // create literal
-            literal.setName(enumeral.getName()); // set name.
-            literal.setValue(eEnum.getELiterals().size()); // set ordinal.
-            eEnum.getELiterals().add(literal); // add literal to enum.
-        }
+        addLiterals(eEnum, extractedEnum);
         typeGenerator.addTypeParameters(eEnum, extractedEnum); // add generic types.
         return eEnum;
     }
 
+    /**
+     * Generates the detached members of an {@link EClass}. Does not modify the {@link EClass}.
+     */
+    private EClassMembers generateMembers(EClass eClass) {
+        ExtractedType extractedType = bareEClasses.get(eClass);
+        ExtractionEvent event = ExtractionEvents.beginEClass(eClass.getName());
+        EClassMembers members = new EClassMembers(memberGenerator.generateFields(extractedType, eClass),
+                memberGenerator.generateOperations(extractedType, eClass));
+        event.commit(members.features.size(), members.operations.size());
+        return members;
+    }
+
+    /**
+     * Generates the detached members of a list of {@link EClass}es, in the order of the classes.
+     */
+    private List<EClassMembers> generateMembers(List<EClass> eClasses) {
+        List<EClassMembers> members = new ArrayList<EClassMembers>(eClasses.size());
+        for (EClass eClass : eClasses) {
+            members.add(generateMembers(eClass));
+        }
+        return members;
+    }
+
     /**
      * Generates a super type relation from an {@link EClass} to another {@link EClass}, with the help of an
      * {@link ExtractedDataType} of the super type.
      */
     private void generateSuperRelation(EClass subType, EClass superType, ExtractedDataType dataType) {
+        boolean deliver = subType.eDeliver();
+        subType.eSetDeliver(true); // the super type adapters need to know their subtypes, even in bulk mode
         subType.getESuperTypes().add(superType); // add inheritance relation.
+        subType.eSetDeliver(deliver);
         for (EGenericType genericType : subType.getEGenericSuperTypes()) {
             if (genericType.getEClassifier().equals(superType)) { // find related EGenericType
                 typeGenerator.addGenericArguments(genericType, dataType, new TypeParameterSource(subType));
             }
         }
     }
+
+    /**
+     * The detached members of an {@link EClass}, which are attached after all members were generated.
+     */
+    private static final class EClassMembers {
+        final List<EStructuralFeature> features;
+        final List<EOperation> operations;
+
+        /**
+         * Basic constructor.
+         */
+        EClassMembers(List<EStructuralFeature> features, List<EOperation> operations) {
+            this.features = features;
+            this.operations = operations;
+        }
+    }
 }
\ No newline at end of file
@@ -1,23 +1,33 @@
 package eme.generator;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 import org.eclipse.emf.ecore.EClassifier;
 import org.eclipse.emf.ecore.EDataType;
 import org.eclipse.emf.ecore.EGenericType;
+import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EOperation;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EStructuralFeature.Setting;
 import org.eclipse.emf.ecore.ETypeParameter;
 import org.eclipse.emf.ecore.ETypedElement;
 import org.eclipse.emf.ecore.EcoreFactory;
 import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.emf.ecore.util.EcoreUtil.UsageCrossReferencer;
 
+import eme.extractor.JreTypeIndex;
 import eme.generator.hierarchies.ExternalTypeHierarchy;
+import eme.metrics.ExtractionMetrics;
+import eme.metrics.ExtractionMetrics.Counter;
 import eme.model.ExtractedMethod;
 import eme.model.ExtractedType;
 import eme.model.IntermediateModel;
@@ -26,7 +36,8 @@ import eme.model.datatypes.ExtractedTypeParameter;
 import eme.model.datatypes.WildcardStatus;
 
 /**
- * Generator class for the generation of Ecore data types ({@link EDataType})
+ * Generator class for the generation of Ecore data types ({@link EDataType}). The data types can be generated by
+ * multiple threads at the same time, the creation of external data types is synchronized.
  * @author Timur Saglam
  */
 public class EDataTypeGenerator {
@@ -34,7 +45,10 @@ public class EDataTypeGenerator {
     private final Map<String, EDataType> dataTypeMap;
     private final Map<String, EClassifier> eClassifierMap;
     private final EcoreFactory ecoreFactory;
-    private final IntermediateModel model;
+    private final JreTypeIndex jreTypes;
+    private ExtractionMetrics metrics;
+    private IntermediateModel model;
+    private final Map<String, EDataType> pendingTypes; // external types under construction, guarded by this
     private final ExternalTypeHierarchy typeHierarchy;
 
     /**
@@ -42,13 +56,18 @@ public class EDataTypeGenerator {
      * @param model is the {@link IntermediateModel}.
      * @param eClassifierMap is the list of created {@link EClassifier}s. This is needed to get custom data types.
      * @param typeHierarchy is the external type package hierarchy.
+     * @param metrics are the {@link ExtractionMetrics} which count the data type cache lookups.
      */
-    public EDataTypeGenerator(IntermediateModel model, Map<String, EClassifier> eClassifierMap, ExternalTypeHierarchy typeHierarchy) {
+    public EDataTypeGenerator(IntermediateModel model, Map<String, EClassifier> eClassifierMap, ExternalTypeHierarchy typeHierarchy,
+            ExtractionMetrics metrics) {
         this.model = model;
+        this.metrics = metrics;
         this.eClassifierMap = eClassifierMap; // set eClassifier map.
         this.typeHierarchy = typeHierarchy;
+        jreTypes = JreTypeIndex.getInstance();
         ecoreFactory = EcoreFactory.eINSTANCE; // get ecore factory.
-        dataTypeMap = new HashMap<String, EDataType>(); // create type map.
+        dataTypeMap = new ConcurrentHashMap<String, EDataType>(); // create type map.
+        pendingTypes = new HashMap<String, EDataType>();
         fillMap(); // fill type map.
     }
 
@@ -60,8 +79,9 @@ public class EDataTypeGenerator {
      * @param source is the source of {@link ETypeParameter}s, an {@link TypeParameterSource}.
      */
     public void addDataType(ETypedElement element, ExtractedDataType dataType, TypeParameterSource source) {
-        if (source.containsTypeParameter(dataType)) { // check if is type parameter
-            element.setEGenericType(generateGeneric(dataType, source));
+        ETypeParameter typeParameter = source.getTypeParameter(dataType);
+        if (typeParameter != null) { // check if is type parameter
+            element.setEGenericType(generateGeneric(typeParameter));
         } else {
             element.setEType(generate(dataType)); // generate data type
         }
@@ -76,8 +96,9 @@ public class EDataTypeGenerator {
      * @param source is the source of {@link ETypeParameter}s, an {@link TypeParameterSource}.
      */
     public void addException(EOperation operation, ExtractedDataType exception, TypeParameterSource source) {
-        if (source.containsTypeParameter(exception)) { // check if is type parameter
-            operation.getEGenericExceptions().add(generateGeneric(exception, source));
+        ETypeParameter typeParameter = source.getTypeParameter(exception);
+        if (typeParameter != null) { // check if is type parameter
+            operation.getEGenericExceptions().add(generateGeneric(typeParameter));
         } else {
             operation.getEExceptions().add(generate(exception)); // generate data type
         }
@@ -92,13 +113,7 @@ public class EDataTypeGenerator {
      */
     public void addGenericArguments(EGenericType genericType, ExtractedDataType dataType, TypeParameterSource source) {
         for (ExtractedDataType genericArgument : dataType.getGenericArguments()) { // for every generic argument
-            EGenericType eArgument = ecoreFactory.createEGenericType(); // create ETypeArgument as EGenericType
-            if (genericArgument.isWildcard()) { // wildcard argument:
-                addWildcardBound(eArgument, genericArgument, source);
-            } else { // normal argument or type parameter
-                generateBoundType(eArgument, genericArgument, source);
-            }
-            addGenericArguments(eArgument, genericArgument, source); // recursively add generic arguments
+            EGenericType eArgument = generateArgument(genericArgument, source);
             genericType.getETypeArguments().add(eArgument); // add ETypeArgument to original generic type
         }
     }
@@ -117,10 +132,46 @@ public class EDataTypeGenerator {
      * Adds all generic type parameters from an {@link ExtractedMethod} to a {@link EOperation}.
      * @param eOperation is the {@link EOperation}.
      * @param method is the {@link ExtractedMethod}.
+     * @param classSource is the {@link TypeParameterSource} of the {@link EClassifier} that contains the
+     * {@link EOperation}.
+     * @return the {@link TypeParameterSource} of the {@link EOperation}, which contains its new {@link ETypeParameter}s.
      */
-    public void addTypeParameters(EOperation eOperation, ExtractedMethod method) {
+    public TypeParameterSource addTypeParameters(EOperation eOperation, ExtractedMethod method, TypeParameterSource classSource) {
         eOperation.getETypeParameters().addAll(generateETypeParameters(method.getTypeParameters()));
-        finishTypeParameters(eOperation.getETypeParameters(), method.getTypeParameters(), new TypeParameterSource(eOperation));
+        TypeParameterSource source = new TypeParameterSource(classSource, eOperation); // indexes the new parameters
+        finishTypeParameters(eOperation.getETypeParameters(), method.getTypeParameters(), source);
+        return source;
+    }
+
+    /**
+     * Prepares the generator for an update of its metamodel from a new version of the {@link IntermediateModel}.
+     * @param newModel is the new version of the {@link IntermediateModel}.
+     * @param newMetrics are the {@link ExtractionMetrics} of the update.
+     */
+    public void prepareUpdate(IntermediateModel newModel, ExtractionMetrics newMetrics) {
+        model = newModel;
+        metrics = newMetrics;
+    }
+
+    /**
+     * Removes the external {@link EDataType}s that are not used anymore from the external type hierarchy, e.g. after
+     * the classifiers that used them were removed. This searches the usages in the whole metamodel once.
+     * @param root is the root {@link EPackage} of the metamodel.
+     */
+    public void removeUnusedExternalTypes(EPackage root) {
+        List<EDataType> externalTypes = new ArrayList<EDataType>();
+        for (EDataType dataType : dataTypeMap.values()) {
+            if (dataType.getEPackage() != EcorePackage.eINSTANCE) { // not a default data type
+                externalTypes.add(dataType);
+            }
+        }
+        Map<EObject, Collection<Setting>> usages = UsageCrossReferencer.findAll(externalTypes, root);
+        for (EDataType dataType : externalTypes) {
+            if (!usages.containsKey(dataType)) {
+                dataTypeMap.remove(dataType.getInstanceTypeName());
+                typeHierarchy.remove(dataType);
+            }
+        }
     }
 
     /**
@@ -154,6 +205,23 @@ public class EDataTypeGenerator {
         }
     }
 
+    /**
+     * Creates an external {@link EDataType} and adds it to the external type hierarchy. Only one thread creates external
+     * types at a time, a type that another thread created in the meantime is returned from the type map. A type that
+     * references itself in the bounds of its type parameters gets the type that is still under construction.
+     */
+    private synchronized EDataType createExternalType(ExtractedDataType extractedDataType) {
+        EDataType eDataType = dataTypeMap.get(extractedDataType.getFullType());
+        if (eDataType == null) { // self reference while building its type parameters
+            eDataType = pendingTypes.get(extractedDataType.getFullType());
+        }
+        if (eDataType == null) { // not created by another thread
+            eDataType = generateExternalType(extractedDataType); // create new EDataType
+            typeHierarchy.add(eDataType);
+        }
+        return eDataType;
+    }
+
     /**
      * Default data type map entries.
      */
@@ -196,27 +264,39 @@ public class EDataTypeGenerator {
      * has to be created as data type, or (3.) an already known data type (Basic type or already created)
      */
     private EClassifier generate(ExtractedDataType extractedDataType) {
-        EDataType eDataType;
         String fullName = extractedDataType.getFullType();
         if (eClassifierMap.containsKey(fullName)) { // if is custom classifier (1.)
             return eClassifierMap.get(fullName);
-        } else if (dataTypeMap.containsKey(fullName)) { // if is basic type or already known EDataType (3.)
+        } else if (isKnownDataType(fullName)) { // if is basic type or already known EDataType (3.)
             return dataTypeMap.get(fullName); // access EDataType
         } else { // if its an external type (2.)
-            eDataType = generateExternalType(extractedDataType); // create new EDataType
-            typeHierarchy.add(eDataType);
-            return eDataType;
+            return createExternalType(extractedDataType);
         }
     }
 
+    /**
+     * Builds a new {@link EGenericType} for a generic argument and adds its generic arguments recursively.
+     */
+    private EGenericType generateArgument(ExtractedDataType genericArgument, TypeParameterSource source) {
+        EGenericType eArgument = ecoreFactory.createEGenericType(); // create ETypeArgument as EGenericType
+        if (genericArgument.isWildcard()) { // wildcard argument:
+            addWildcardBound(eArgument, genericArgument, source);
+        } else { // normal argument or type parameter
+            generateBoundType(eArgument, genericArgument, source);
+        }
+        addGenericArguments(eArgument, genericArgument, source); // recursively add generic arguments
+        return eArgument;
+    }
+
     /**
      * Sets the type of an {@link EGenericType} from a bound {@link ExtractedDataType}. This is either an
      * {@link ETypeParameter} if the {@link ExtractedDataType} is a type parameter in the {@link TypeParameterSource} or
      * {@link EClassifier} if not.
      */
     private void generateBoundType(EGenericType genericType, ExtractedDataType boundType, TypeParameterSource source) {
-        if (source.containsTypeParameter(boundType)) {
-            genericType.setETypeParameter(source.getTypeParameter(boundType));
+        ETypeParameter typeParameter = source.getTypeParameter(boundType);
+        if (typeParameter != null) {
+            genericType.setETypeParameter(typeParameter);
         } else {
             genericType.setEClassifier(generate(boundType));
         }
@@ -236,8 +316,8 @@ public class EDataTypeGenerator {
     }
 
     /**
-     * Creates a new EDataType from an ExtractedDataType. The new EDataType can then be accessed from the type map or array
-     * type map.
+     * Creates a new EDataType from an ExtractedDataType. The new EDataType is only published in the type map after its
+     * type parameters were added, which means other threads never see an incomplete data type.
      */
     private EDataType generateExternalType(ExtractedDataType extractedDataType) {
         if (dataTypeMap.containsKey(extractedDataType.getFullType())) { // if already created:
@@ -247,27 +327,35 @@ public class EDataTypeGenerator {
         eDataType.setName(extractedDataType.getType());
         eDataType.setInstanceTypeName(extractedDataType.getFullType()); // set full name
         String dataTypeName = extractedDataType.getFullArrayType(); // get type name without array brackets.
-        dataTypeMap.put(extractedDataType.getFullType(), eDataType); // store in map for later use
+        pendingTypes.put(extractedDataType.getFullType(), eDataType); // visible for self references only
         if (model.containsExternal(dataTypeName)) { // external type
             addTypeParameters(eDataType, model.getExternalType(dataTypeName)); // add parameters from external type
         } else if (model.contains(dataTypeName)) { // internal type, but not selected
             addTypeParameters(eDataType, model.getType(dataTypeName)); // add parameters from external type
+        } else if (jreTypes.contains(dataTypeName)) { // common JRE type
+            addTypeParameters(eDataType, jreTypes.createType(dataTypeName)); // add parameters from type index
         } else if (!extractedDataType.getGenericArguments().isEmpty()) { // if external type is unknown
             logger.error("Can not resolve type parameters for " + extractedDataType.toString());
         }
+        pendingTypes.remove(extractedDataType.getFullType());
+        dataTypeMap.put(extractedDataType.getFullType(), eDataType); // publish complete type for later use
         return eDataType;
     }
 
     /**
-     * Returns an generic type parameter, which is an {@link EGenericType}, for an {@link ExtractedDataType} that can be
-     * used as generic argument for methods and attributes.
+     * Returns an generic type parameter, which is an {@link EGenericType}, for an {@link ETypeParameter} that can be used
+     * as generic argument for methods and attributes.
      */
-    private EGenericType generateGeneric(ExtractedDataType dataType, TypeParameterSource source) {
-        if (source.containsTypeParameter(dataType)) {
-            EGenericType genericType = ecoreFactory.createEGenericType();
-            genericType.setETypeParameter(source.getTypeParameter(dataType));
-            return genericType;
-        }
-        throw new IllegalArgumentException("The data type is not an type parameter: " + dataType.toString());
+    private EGenericType generateGeneric(ETypeParameter typeParameter) {
+        EGenericType genericType = ecoreFactory.createEGenericType();
+        genericType.setETypeParameter(typeParameter);
+        return genericType;
+    }
+
+    /**
+     * Checks whether an {@link EDataType} for a type name was already created and counts the lookup.
+     */
+    private boolean isKnownDataType(String fullName) {
+        return metrics.countLookup(dataTypeMap.containsKey(fullName), Counter.DATA_TYPE_CACHE_HITS, Counter.DATA_TYPE_CACHE_MISSES);
     }
-}
\ No newline at end of file
+}
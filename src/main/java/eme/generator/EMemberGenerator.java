@@ -1,6 +1,6 @@
 package eme.generator;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -22,10 +22,11 @@ import eme.model.ExtractedType;
 import eme.model.datatypes.ExtractedDataType;
 import eme.model.datatypes.ExtractedField;
 import eme.model.datatypes.ExtractedParameter;
-import eme.properties.TextProperty;
 
 /**
- * Generator class for Ecore members ({@link EOperation}s and {@link EStructuralFeature}s).
+ * Generator class for Ecore members ({@link EOperation}s and {@link EStructuralFeature}s). The members of an
+ * {@link EClass} can be generated detached from it, which allows to generate the members of different classes on
+ * different threads.
  * @author Timur Saglam
  */
 public class EMemberGenerator {
@@ -53,11 +54,7 @@ public class EMemberGenerator {
      * @param eClass is the {@link EClass}.
      */
     public void addFields(ExtractedType type, EClass eClass) {
-        for (ExtractedField field : type.getFields()) { // for every field
-            if (selector.allowsGenerating(field)) { // if it is selected
-                addField(field, eClass); // add to EClass by creating an Ecore representation
-            }
-        }
+        eClass.getEStructuralFeatures().addAll(generateFields(type, eClass));
     }
 
     /**
@@ -66,11 +63,7 @@ public class EMemberGenerator {
      * @param eClass is the {@link EClass}.
      */
     public void addOperations(ExtractedType type, EClass eClass) {
-        for (ExtractedMethod method : type.getMethods()) { // for every method
-            if (selector.allowsGenerating(method)) { // if should be generated.
-                addOperation(method, eClass);
-            }
-        }
+        eClass.getEOperations().addAll(generateOperations(type, eClass));
     }
 
     /**
@@ -88,43 +81,48 @@ public class EMemberGenerator {
     }
 
     /**
-     * Adds the declared exceptions of an {@link ExtractedMethod} to an {@link EOperation}.
+     * Generates the Ecore representations of any {@link ExtractedField} of an {@link ExtractedType} without adding them
+     * to their {@link EClass}. Does not modify the {@link EClass}.
+     * @param type is the {@link ExtractedType}
+     * @param eClass is the {@link EClass} which will contain the features.
+     * @return the list of {@link EStructuralFeature}s in the order of the fields.
      */
-    private void addExceptions(EOperation operation, ExtractedMethod method, TypeParameterSource source) {
-        for (ExtractedDataType exception : method.getThrowsDeclarations()) {
-            typeGenerator.addException(operation, exception, source);
+    public List<EStructuralFeature> generateFields(ExtractedType type, EClass eClass) {
+        List<EStructuralFeature> features = new ArrayList<EStructuralFeature>();
+        TypeParameterSource source = new TypeParameterSource(eClass); // shared by all fields
+        for (ExtractedField field : type.getFields()) { // for every field
+            if (selector.allowsGenerating(field)) { // if it is selected
+                features.add(generateField(field, source)); // create an Ecore representation
+            }
         }
+        return features;
     }
 
     /**
-     * Adds a field to a {@link EClass} by creating a {@link EStructuralFeature} as Ecore representation, which is
-     * either a {@link EReference} or an {@link EAttribute}. List types are represented by an {@link EStructuralFeature}
-     * with an undefined upper bound property, which represents an one-to-many reference. If it is a reference,
-     * containment has to be set manually.
+     * Generates the Ecore representations of any {@link ExtractedMethod} of an {@link ExtractedType} without adding them
+     * to their {@link EClass}. Does not modify the {@link EClass}.
+     * @param type is the {@link ExtractedType}.
+     * @param eClass is the {@link EClass} which will contain the operations.
+     * @return the list of {@link EOperation}s in the order of the methods.
      */
-    private void addField(ExtractedField field, EClass eClass) {
-        ExtractedDataType dataType = getRelevantDataType(field);
-        EStructuralFeature representation = createFieldRepresentation(dataType);
-        representation.setName(field.getIdentifier()); // set name
-        representation.setChangeable(!(field.isFinal() && selector.allowsUnchangeable())); // make unchangeable if final
-        setUpperBound(representation, field);
-        typeGenerator.addDataType(representation, dataType, new TypeParameterSource(eClass)); // add type to attribute
-        eClass.getEStructuralFeatures().add(representation); // add feature to EClass
+    public List<EOperation> generateOperations(ExtractedType type, EClass eClass) {
+        List<EOperation> operations = new ArrayList<EOperation>();
+        TypeParameterSource classSource = new TypeParameterSource(eClass); // shared by all operations
+        for (ExtractedMethod method : type.getMethods()) { // for every method
+            if (selector.allowsGenerating(method)) { // if should be generated.
+                operations.add(generateOperation(method, classSource));
+            }
+        }
+        return operations;
     }
 
     /**
-     * Adds a single {@link ExtractedMethod} to a {@link EClass} by creating a {@link EOperation} as Ecore
-     * representation.
+     * Adds the declared exceptions of an {@link ExtractedMethod} to an {@link EOperation}.
      */
-    private void addOperation(ExtractedMethod method, EClass eClass) {
-        EOperation operation = ecoreFactory.createEOperation(); // create object
-        operation.setName(method.getName()); // set name
-        eClass.getEOperations().add(operation);
-        typeGenerator.addTypeParameters(operation, method);
-        TypeParameterSource source = new TypeParameterSource(operation); // source of type parameters
-        addReturnType(operation, method.getReturnType(), source); // add return type
-        addExceptions(operation, method, source); // add throws declarations
-        addParameters(method, operation.getEParameters(), source); // add parameters
+    private void addExceptions(EOperation operation, ExtractedMethod method, TypeParameterSource source) {
+        for (ExtractedDataType exception : method.getThrowsDeclarations()) {
+            typeGenerator.addException(operation, exception, source);
+        }
     }
 
     /**
@@ -155,21 +153,39 @@ public class EMemberGenerator {
      * Factory method for the Ecore representations of any {@link ExtractedDataType}.
      */
     private EStructuralFeature createFieldRepresentation(ExtractedDataType dataType) {
-
-        if (isEClass(dataType) || isCollection(dataType)) { // if type is EClass or a Java Collection:
+        if (isEClass(dataType) || selector.isCollectionType(dataType)) { // if type is EClass or a Java Collection:
             return ecoreFactory.createEReference();
         } else { // if it is EDataType:
             return ecoreFactory.createEAttribute();
         }
     }
-    
-    private Boolean isCollection(ExtractedDataType dataType) {
-    	String[] dt = TextProperty.DATATYPES_TO_CONVERT_TO_EREFERENCE.getDefaultValue().split(", ");
-    	String dName = dataType.getFullArrayType();
-    	if(Arrays.stream(dt).anyMatch(dName::equals) || dataType.isListType()) {
-    		return true;
-    	}
-    	return false;
+
+    /**
+     * Generates the Ecore representation of a field, which is either a {@link EReference} or an {@link EAttribute}.
+     * List types are represented by an {@link EStructuralFeature} with an undefined upper bound property, which
+     * represents an one-to-many reference. If it is a reference, containment has to be set manually.
+     */
+    private EStructuralFeature generateField(ExtractedField field, TypeParameterSource source) {
+        ExtractedDataType dataType = getRelevantDataType(field);
+        EStructuralFeature representation = createFieldRepresentation(dataType);
+        representation.setName(field.getIdentifier()); // set name
+        representation.setChangeable(!(field.isFinal() && selector.allowsUnchangeable())); // make unchangeable if final
+        setUpperBound(representation, field);
+        typeGenerator.addDataType(representation, dataType, source); // add type to attribute
+        return representation;
+    }
+
+    /**
+     * Generates the Ecore representation of a single {@link ExtractedMethod}, which is an {@link EOperation}.
+     */
+    private EOperation generateOperation(ExtractedMethod method, TypeParameterSource classSource) {
+        EOperation operation = ecoreFactory.createEOperation(); // create object
+        operation.setName(method.getName()); // set name
+        TypeParameterSource source = typeGenerator.addTypeParameters(operation, method, classSource);
+        addReturnType(operation, method.getReturnType(), source); // add return type
+        addExceptions(operation, method, source); // add throws declarations
+        addParameters(method, operation.getEParameters(), source); // add parameters
+        return operation;
     }
 
     /**
@@ -196,11 +212,13 @@ public class EMemberGenerator {
 
     /**
      * Checks whether a {@link ExtractedDataType} can be represented in the Ecore metamodel by using multiplicities.
-     * This depends on three conditions: The data type is a list type (@see {@link ExtractedDataType#isListType()}), the
-     * list is not a list of wild card types, and the user allowed the use of multiplicities in the settings.
+     * This depends on three conditions: The data type is a list type (@see
+     * {@link SelectionHelper#isListType(ExtractedDataType)}), the list is not a list of wild card types, and the user
+     * allowed the use of multiplicities in the settings.
      */
     private boolean isMultiplicityRepresentable(ExtractedDataType dataType) {
-        return dataType.isListType() && !dataType.getGenericArguments().get(0).isWildcard() && selector.allowsMultiplicities(dataType);
+        return selector.isListType(dataType) && !dataType.getGenericArguments().get(0).isWildcard()
+                && selector.allowsMultiplicities(dataType);
     }
 
     /**
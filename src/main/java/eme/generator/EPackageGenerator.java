@@ -5,25 +5,35 @@ import static eme.properties.BinaryProperty.ROOT_CONTAINER;
 import static eme.properties.TextProperty.DUMMY_NAME;
 import static eme.properties.TextProperty.ROOT_NAME;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EClassifier;
 import org.eclipse.emf.ecore.EPackage;
 import org.eclipse.emf.ecore.EcoreFactory;
 
 import eme.generator.hierarchies.InnerTypeHierarchy;
+import eme.metrics.ExtractionMetrics;
+import eme.metrics.ExtractionMetrics.Phase;
 import eme.model.ExtractedPackage;
 import eme.model.ExtractedType;
 import eme.model.IntermediateModel;
+import eme.model.IntermediateModelDiff;
 import eme.properties.ExtractionProperties;
 import eme.properties.TextProperty;
 
 /**
- * Generator class for Ecore packages ({@link EPackage}).
+ * Generator class for Ecore packages ({@link EPackage}). After the generation, the generator can update its metamodel
+ * in place from a new version of the {@link IntermediateModel}, as long as the packages stay the same.
  * @author Timur Saglam
  */
 public class EPackageGenerator {
     private EClassifierGenerator classGenerator;
     private final EcoreFactory ecoreFactory;
+    private Map<String, EPackage> ePackages; // generated packages by full name
+    private ExtractionMetrics metrics;
     private IntermediateModel model;
     private final ExtractionProperties properties;
     private final SelectionHelper selector;
@@ -44,13 +54,117 @@ public class EPackageGenerator {
      * @return the root {@link EPackage} of the Ecore metamodel.
      */
     public EPackage generate(IntermediateModel model) {
+        return generate(model, new ExtractionMetrics(model.getProjectName()));
+    }
+
+    /**
+     * Generates an Ecore metamodel from an {@link IntermediateModel} while recording {@link ExtractionMetrics}.
+     * @param model is the {@link IntermediateModel}.
+     * @param metrics are the {@link ExtractionMetrics} of the extraction.
+     * @return the root {@link EPackage} of the Ecore metamodel.
+     */
+    public EPackage generate(IntermediateModel model, ExtractionMetrics metrics) {
         this.model = model; // set model
+        this.metrics = metrics;
+        ePackages = new HashMap<String, EPackage>();
+        metrics.begin(Phase.GENERATION);
         EPackage eRoot = generateEPackage(model.getRoot()); // generate base model:
+        metrics.end(Phase.GENERATION);
+        metrics.begin(Phase.COMPLETION);
         classGenerator.completeEClassifiers(); // complete EClasses
+        metrics.end(Phase.COMPLETION);
         selector.generateReport(); // print reports
         return eRoot; // return Ecore metamodel root package
     }
 
+    /**
+     * Checks whether the last generated metamodel can be updated in place with the changes of a diff. This is not the
+     * case if packages or external types changed, if inner types were added or removed, or if the selection of a
+     * changed type changed.
+     * @param diff is the {@link IntermediateModelDiff} between the model of the metamodel and the new model.
+     * @return true if it can be updated.
+     */
+    public boolean canUpdate(IntermediateModelDiff diff) {
+        if (classGenerator == null || diff.hasPackageChanges() || diff.hasExternalTypeChanges()) {
+            return false;
+        }
+        for (ExtractedType type : diff.getAddedTypes()) {
+            if (type.isInnerType() || !selector.allowsGenerating(type)) {
+                return false;
+            }
+        }
+        for (ExtractedType type : diff.getRemovedTypes()) {
+            if (type.isInnerType() || !classGenerator.isGenerated(type)) {
+                return false;
+            }
+        }
+        for (ExtractedType type : diff.getChangedTypes()) {
+            if (!classGenerator.isGenerated(type) || !selector.allowsGenerating(type)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Accessor for the {@link ExtractionProperties} of the generator.
+     * @return the properties.
+     */
+    public ExtractionProperties getProperties() {
+        return properties;
+    }
+
+    /**
+     * Returns the {@link EClassifier}s of the last generated metamodel and the {@link ExtractedType}s they were
+     * generated from.
+     * @return the map of {@link EClassifier}s to {@link ExtractedType}s.
+     */
+    public Map<EClassifier, ExtractedType> getGeneratedEClassifiers() {
+        return classGenerator.getGeneratedEClassifiers();
+    }
+
+    /**
+     * Updates the last generated metamodel in place. Removes the classifiers of removed types, generates the classifiers
+     * of added types and generates the classifiers of changed and dependent types again. Dependent types without a
+     * classifier, e.g. deselected types, are skipped. Then removes the external data types that are not used anymore.
+     * Added classifiers are appended to their packages. Call only if
+     * {@link #canUpdate(IntermediateModelDiff)} returns true for the diff.
+     * @param newModel is the new version of the {@link IntermediateModel}.
+     * @param diff is the {@link IntermediateModelDiff} between the model of the metamodel and the new model.
+     * @param newMetrics are the {@link ExtractionMetrics} of the update.
+     * @return the updated {@link EClassifier}s and the {@link ExtractedType}s they were generated from.
+     */
+    public Map<EClassifier, ExtractedType> update(IntermediateModel newModel, IntermediateModelDiff diff,
+            ExtractionMetrics newMetrics) {
+        model = newModel;
+        metrics = newMetrics;
+        Map<EClassifier, ExtractedType> updated = new LinkedHashMap<EClassifier, ExtractedType>();
+        metrics.begin(Phase.GENERATION);
+        classGenerator.prepareUpdate(newModel, newMetrics);
+        for (ExtractedType type : diff.getRemovedTypes()) {
+            classGenerator.removeEClassifier(type);
+        }
+        for (ExtractedType type : diff.getAddedTypes()) {
+            EClassifier eClassifier = classGenerator.generateEClassifier(type);
+            ePackages.get(type.getParentName()).getEClassifiers().add(eClassifier);
+            updated.put(eClassifier, type);
+        }
+        for (ExtractedType type : diff.getChangedTypes()) {
+            updated.put(classGenerator.regenerateEClassifier(type), type);
+        }
+        for (ExtractedType type : diff.getDependentTypes()) {
+            if (classGenerator.isGenerated(type) && selector.allowsGenerating(type)) { // skip types without classifier
+                updated.put(classGenerator.regenerateEClassifier(type), type);
+            }
+        }
+        metrics.end(Phase.GENERATION);
+        metrics.begin(Phase.COMPLETION);
+        classGenerator.completeEClassifiers();
+        classGenerator.removeUnusedDataTypes(ePackages.get(model.getRoot().getFullName()));
+        metrics.end(Phase.COMPLETION);
+        return updated;
+    }
+
     /**
      * Adds subpackages to the {@link EPackage}.
      */
@@ -66,12 +180,16 @@ public class EPackageGenerator {
      * Adds types to the package with the help of the {@link EClassifierGenerator}.
      */
     private void addTypes(EPackage ePackage, ExtractedPackage extractedPackage) {
+        InnerTypeHierarchy innerTypes = null; // created for the first inner type, then reused
         for (ExtractedType type : extractedPackage.getTypes()) { // for all types
             if (selector.allowsGenerating(type)) { // if is allowed to
                 EClassifier eClassifier = classGenerator.generateEClassifier(type);
                 if (type.isInnerType()) { // get relative path of inner type to current package:
                     String relativePath = type.getFullName().replace(extractedPackage.getFullName() + '.', "");
-                    new InnerTypeHierarchy(ePackage, properties).add(eClassifier, relativePath); // add inner type
+                    if (innerTypes == null) {
+                        innerTypes = new InnerTypeHierarchy(ePackage, properties);
+                    }
+                    innerTypes.add(eClassifier, relativePath); // add inner type
                 } else { // add normal type directly
                     ePackage.getEClassifiers().add(eClassifier); // extract
                 }
@@ -93,6 +211,7 @@ public class EPackageGenerator {
             ePackage.setNsPrefix(extractedPackage.getName());
             ePackage.setNsURI(getURI(extractedPackage));
         }
+        ePackages.put(extractedPackage.getFullName(), ePackage);
         addSubpackages(ePackage, extractedPackage);
         addTypes(ePackage, extractedPackage);
         return ePackage;
@@ -107,7 +226,7 @@ public class EPackageGenerator {
         root.setName(name); // set default name
         root.setNsPrefix(name); // set default prefix
         root.setNsURI(getRootURI());
-        classGenerator = new EClassifierGenerator(model, root, selector);
+        classGenerator = new EClassifierGenerator(model, root, selector, metrics);
         generateRootElement(root);
         return root;
     }
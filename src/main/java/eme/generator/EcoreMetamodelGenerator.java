@@ -1,7 +1,17 @@
 package eme.generator;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
+import org.eclipse.emf.ecore.EClassifier;
 import org.eclipse.emf.ecore.EPackage;
 
 import eme.generator.saving.AbstractSavingStrategy;
@@ -11,24 +21,29 @@ import eme.generator.saving.ExistingProjectSaving;
 import eme.generator.saving.NewProjectSaving;
 import eme.generator.saving.OriginalProjectSaving;
 import eme.generator.saving.SavingInformation;
+import eme.metrics.ExtractionMetrics;
+import eme.metrics.ExtractionMetrics.Counter;
+import eme.metrics.ExtractionMetrics.Phase;
 import eme.model.ExtractedPackage;
+import eme.model.ExtractedType;
 import eme.model.IntermediateModel;
+import eme.model.IntermediateModelDiff;
+import eme.properties.BinaryProperty;
 import eme.properties.ExtractionProperties;
 import eme.properties.TextProperty;
 
 /**
  * This class generates an Ecore Metamodel from an {@link IntermediateModel}. It also allows to save a generated
- * metamodel as an Ecore file using a specific saving strategy.
+ * metamodel as an Ecore file using a specific saving strategy. Every generation works on its own generators and on a
+ * snapshot of the {@link ExtractionProperties}, which means one instance can generate multiple metamodels concurrently.
+ * Multiple variants of a metamodel with different properties can be generated from one model. A generated metamodel
+ * can be updated in place from a new version of its model, which only generates the changed classifiers again.
  * @author Timur Saglam
  */
 public class EcoreMetamodelGenerator {
     private static final Logger logger = LogManager.getLogger(EcoreMetamodelGenerator.class.getName());
     private static final String OUTPUT_PROJECT = "EME-Generator-Output";
-    private final EPackageGenerator ePackageGenerator;
-    private GeneratedEcoreMetamodel metamodel;
-    private String projectName;
     private final ExtractionProperties properties;
-    private AbstractSavingStrategy savingStrategy;
 
     /**
      * Basic constructor.
@@ -36,66 +51,247 @@ public class EcoreMetamodelGenerator {
      */
     public EcoreMetamodelGenerator(ExtractionProperties properties) {
         this.properties = properties;
-        ePackageGenerator = new EPackageGenerator(properties); // build generators
     }
 
     /**
-     * Changes the {@link AbstractSavingStrategy} to a new one.
-     * @param strategyName is the name of the new saving strategy.
+     * Creates a new {@link AbstractSavingStrategy}.
+     * @param strategyName is the name of the saving strategy.
+     * @return the saving strategy, which is a {@link NewProjectSaving} if the name is unknown.
+     */
+    public AbstractSavingStrategy createSavingStrategy(String strategyName) {
+        return createSavingStrategy(strategyName, properties);
+    }
+
+    /**
+     * Creates a new {@link AbstractSavingStrategy} with the settings of a specific properties snapshot.
+     * @param strategyName is the name of the saving strategy.
+     * @param snapshot is the snapshot of the {@link ExtractionProperties}, e.g. of a single extraction.
+     * @return the saving strategy, which is a {@link NewProjectSaving} if the name is unknown.
      */
-    public final void changeSavingStrategy(String strategyName) { // Add custom strategies here
+    public AbstractSavingStrategy createSavingStrategy(String strategyName, ExtractionProperties snapshot) { // Add custom strategies here
         if (isStrategy(ExistingProjectSaving.class, strategyName)) {
-            savingStrategy = new ExistingProjectSaving(OUTPUT_PROJECT);
+            return new ExistingProjectSaving(OUTPUT_PROJECT);
         } else if (isStrategy(OriginalProjectSaving.class, strategyName)) {
-            savingStrategy = new OriginalProjectSaving();
+            return new OriginalProjectSaving();
         } else if (isStrategy(CustomPathSaving.class, strategyName)) {
-            savingStrategy = new CustomPathSaving();
+            return new CustomPathSaving();
         } else if (isStrategy(CopyProjectSaving.class, strategyName)) {
-            savingStrategy = new CopyProjectSaving(properties.get(TextProperty.PROJECT_SUFFIX));
+            return new CopyProjectSaving(snapshot.get(TextProperty.PROJECT_SUFFIX));
         } else if (isStrategy(NewProjectSaving.class, strategyName)) {
-            savingStrategy = new NewProjectSaving();
-        } else {
-            logger.error("Unknown saving strategy: " + strategyName);
-            savingStrategy = new NewProjectSaving();
+            return new NewProjectSaving();
         }
+        logger.error("Unknown saving strategy: " + strategyName);
+        return new NewProjectSaving();
     }
 
     /**
-     * Method starts the Ecore metamodel generation.
+     * Method starts the Ecore metamodel generation. This method is thread-safe.
      * @param model is the {@link IntermediateModel} that is the source for the generator.
      * @return the root element of the metamodel, an {@link EPackage}.
      */
     public GeneratedEcoreMetamodel generateMetamodel(IntermediateModel model) {
-        changeSavingStrategy(properties.get(TextProperty.SAVING_STRATEGY)); // set saving strategy
+        return generateMetamodel(model, new ExtractionMetrics(model.getProjectName()));
+    }
+
+    /**
+     * Method starts the Ecore metamodel generation and records its {@link ExtractionMetrics}. This method is thread-safe.
+     * @param model is the {@link IntermediateModel} that is the source for the generator.
+     * @param metrics are the {@link ExtractionMetrics} of the extraction, which are attached to the metamodel.
+     * @return the root element of the metamodel, an {@link EPackage}.
+     */
+    public GeneratedEcoreMetamodel generateMetamodel(IntermediateModel model, ExtractionMetrics metrics) {
+        return generateMetamodel(model, properties.snapshot(), metrics);
+    }
+
+    /**
+     * Method starts the Ecore metamodel generation with a specific properties snapshot, e.g. the snapshot of an
+     * extraction run. The snapshot is kept by the metamodel and is also used to save it. This method is thread-safe.
+     * @param model is the {@link IntermediateModel} that is the source for the generator.
+     * @param snapshot is the snapshot of the {@link ExtractionProperties}, which must not be changed afterwards.
+     * @param metrics are the {@link ExtractionMetrics} of the extraction, which are attached to the metamodel.
+     * @return the root element of the metamodel, an {@link EPackage}.
+     */
+    public GeneratedEcoreMetamodel generateMetamodel(IntermediateModel model, ExtractionProperties snapshot,
+            ExtractionMetrics metrics) {
         logger.info("Started generating the metamodel...");
-        ExtractedPackage root = model.getRoot(); // get root package.
-        if (root == null || !root.isSelected()) { // check if valid.
-            throw new IllegalArgumentException("The root of an model can't be null or deselected: " + model.toString());
+        check(model);
+        return generate(model, snapshot, metrics);
+    }
+
+    /**
+     * Generates one metamodel variant per {@link ExtractionProperties} configuration from a single
+     * {@link IntermediateModel}, e.g. a variant with the public API only and a complete variant. The variants share the
+     * model and its type index and are generated concurrently. Every variant has its own {@link ExtractionMetrics}. The
+     * variants are not saved. This method is thread-safe.
+     * @param model is the {@link IntermediateModel} that is the source for all variants.
+     * @param variants are the configurations, one per variant.
+     * @return the generated metamodels in the order of the configurations.
+     */
+    public List<GeneratedEcoreMetamodel> generateMetamodels(IntermediateModel model, List<ExtractionProperties> variants) {
+        logger.info("Started generating " + variants.size() + " metamodel variants...");
+        check(model);
+        int threads = Math.max(1, Math.min(variants.size(), Runtime.getRuntime().availableProcessors()));
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<GeneratedEcoreMetamodel>> futures = new ArrayList<Future<GeneratedEcoreMetamodel>>();
+        try {
+            for (ExtractionProperties variant : variants) {
+                ExtractionProperties snapshot = variant.snapshot(); // settings at the time of the call
+                futures.add(pool.submit(() -> generate(model, snapshot, new ExtractionMetrics(model.getProjectName()))));
+            }
+            List<GeneratedEcoreMetamodel> metamodels = new ArrayList<GeneratedEcoreMetamodel>();
+            for (Future<GeneratedEcoreMetamodel> future : futures) {
+                metamodels.add(future.get());
+            }
+            return metamodels;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating the metamodel variants.", exception);
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException("Could not generate a metamodel variant.", exception.getCause());
+        } finally {
+            pool.shutdownNow();
         }
-        projectName = model.getProjectName(); // store project name.
-        EPackage eRoot = ePackageGenerator.generate(model); // generate model model.
-        metamodel = new GeneratedEcoreMetamodel(eRoot, model);
-        return metamodel;
     }
 
     /**
-     * Saves the metamodel as an Ecore file.
+     * Saves a metamodel as an Ecore file, using the saving strategy of the properties snapshot the metamodel was
+     * generated with, or of the current {@link ExtractionProperties} if it has none. The
+     * {@link ExtractionMetrics} of the metamodel are saved as JSON file next to it. If enabled in the properties, the
+     * {@link IntermediateModel} of the metamodel is saved as snapshot next to it as well. This method is thread-safe.
+     * @param metamodel is the {@link GeneratedEcoreMetamodel} to save.
      * @return the saving information.
      */
-    public SavingInformation saveMetamodel() {
+    public SavingInformation saveMetamodel(GeneratedEcoreMetamodel metamodel) {
         logger.info("Started saving the metamodel");
-        if (metamodel == null) {
-            throw new IllegalStateException("Cannot save Ecore metamodel before extracting one.");
-        }
+        ExtractionProperties snapshot = metamodel.getProperties() == null ? properties.snapshot() : metamodel.getProperties();
+        String strategyName = snapshot.get(TextProperty.SAVING_STRATEGY);
+        AbstractSavingStrategy savingStrategy = createSavingStrategy(strategyName, snapshot);
+        String projectName = metamodel.getIntermediateModel().getProjectName();
+        ExtractionMetrics metrics = metamodel.getMetrics();
+        metrics.begin(Phase.SAVE);
         SavingInformation savingInformation = savingStrategy.save(metamodel.getRoot(), projectName);
+        metrics.end(Phase.SAVE);
+        metrics.add(Counter.BYTES_WRITTEN, savingInformation.getFile().length());
+        savingStrategy.saveMetrics(metrics, savingInformation);
+        if (snapshot.get(BinaryProperty.MODEL_SNAPSHOT)) {
+            savingStrategy.saveSnapshot(metamodel.getIntermediateModel(), savingInformation);
+        }
+        logger.info(metrics);
         metamodel.setSavingInformation(savingInformation);
         return savingInformation;
     }
 
+    /**
+     * Updates a generated metamodel in place from a new version of its {@link IntermediateModel}, e.g. after the project
+     * was edited and extracted again. Only the classifiers of added, removed and changed types and of the types that
+     * reference added or removed types are generated again, all other elements of the metamodel are kept. This needs
+     * the property for incremental updates, otherwise the metamodel keeps no generator and is generated again with the
+     * current properties. The update uses the properties of the original generation. If the changes can not be applied
+     * in place, e.g. because packages were added or removed, the metamodel is generated again with these properties. The
+     * same metamodel must not be updated concurrently, and the given metamodel must not be used afterwards.
+     * @param metamodel is the {@link GeneratedEcoreMetamodel} to update.
+     * @param model is the new version of the {@link IntermediateModel}.
+     * @return the updated metamodel, which has the same root as the given metamodel unless it was generated again.
+     */
+    public GeneratedEcoreMetamodel updateMetamodel(GeneratedEcoreMetamodel metamodel, IntermediateModel model) {
+        return updateMetamodel(metamodel, model, new ExtractionMetrics(model.getProjectName()));
+    }
+
+    /**
+     * Updates a generated metamodel in place from a new version of its {@link IntermediateModel} and records the
+     * {@link ExtractionMetrics} of the update.
+     * @param metamodel is the {@link GeneratedEcoreMetamodel} to update.
+     * @param model is the new version of the {@link IntermediateModel}.
+     * @param metrics are the {@link ExtractionMetrics} of the extraction, which are attached to the metamodel.
+     * @return the updated metamodel, which has the same root as the given metamodel unless it was generated again.
+     * @see #updateMetamodel(GeneratedEcoreMetamodel, IntermediateModel)
+     */
+    public GeneratedEcoreMetamodel updateMetamodel(GeneratedEcoreMetamodel metamodel, IntermediateModel model,
+            ExtractionMetrics metrics) {
+        return updateMetamodel(metamodel, model, properties.snapshot(), metrics);
+    }
+
+    /**
+     * Updates a generated metamodel in place from a new version of its {@link IntermediateModel} and records the
+     * {@link ExtractionMetrics} of the update. If the metamodel has to be generated again without its original
+     * properties, the given properties snapshot is used.
+     * @param metamodel is the {@link GeneratedEcoreMetamodel} to update.
+     * @param model is the new version of the {@link IntermediateModel}.
+     * @param snapshot is the snapshot of the {@link ExtractionProperties} of the extraction run.
+     * @param metrics are the {@link ExtractionMetrics} of the extraction, which are attached to the metamodel.
+     * @return the updated metamodel, which has the same root as the given metamodel unless it was generated again.
+     * @see #updateMetamodel(GeneratedEcoreMetamodel, IntermediateModel)
+     */
+    public GeneratedEcoreMetamodel updateMetamodel(GeneratedEcoreMetamodel metamodel, IntermediateModel model,
+            ExtractionProperties snapshot, ExtractionMetrics metrics) {
+        logger.info("Started updating the metamodel...");
+        check(model);
+        EPackageGenerator ePackageGenerator = metamodel.getGenerator();
+        if (ePackageGenerator == null) { // not generated by this class or without incremental updates
+            return generate(model, snapshot, metrics);
+        }
+        IntermediateModelDiff diff = new IntermediateModelDiff(metamodel.getIntermediateModel(), model);
+        logger.info(diff);
+        if (!ePackageGenerator.canUpdate(diff)) {
+            logger.info("The metamodel can not be updated in place, generating it again...");
+            return generate(model, ePackageGenerator.getProperties(), metrics);
+        }
+        Map<EClassifier, ExtractedType> updated = ePackageGenerator.update(model, diff, metrics);
+        generateCode(ePackageGenerator.getProperties(), updated, metrics);
+        return createMetamodel(metamodel.getRoot(), model, metrics, ePackageGenerator);
+    }
+
+    /**
+     * Checks whether the root of a model is valid.
+     */
+    private void check(IntermediateModel model) {
+        ExtractedPackage root = model.getRoot(); // get root package.
+        if (root == null || !root.isSelected()) { // check if valid.
+            throw new IllegalArgumentException("The root of an model can't be null or deselected: " + model.toString());
+        }
+    }
+
+    /**
+     * Creates the container of a generated metamodel with the properties snapshot of its generator. The container only
+     * keeps the generator and all its state if incremental updates are enabled, otherwise the generator can be garbage
+     * collected after the generation.
+     */
+    private GeneratedEcoreMetamodel createMetamodel(EPackage root, IntermediateModel model, ExtractionMetrics metrics,
+            EPackageGenerator ePackageGenerator) {
+        ExtractionProperties snapshot = ePackageGenerator.getProperties();
+        EPackageGenerator generator = snapshot.get(BinaryProperty.INCREMENTAL_UPDATE) ? ePackageGenerator : null;
+        return new GeneratedEcoreMetamodel(root, model, metrics, snapshot, generator);
+    }
+
+    /**
+     * Generates a metamodel with its own generators and a snapshot of the properties. If enabled, the Java code of the
+     * classes is generated in a separate stage after the metamodel is complete.
+     */
+    private GeneratedEcoreMetamodel generate(IntermediateModel model, ExtractionProperties snapshot,
+            ExtractionMetrics metrics) {
+        EPackageGenerator ePackageGenerator = new EPackageGenerator(snapshot); // generators of this run
+        EPackage eRoot = ePackageGenerator.generate(model, metrics); // generate model model.
+        generateCode(snapshot, ePackageGenerator.getGeneratedEClassifiers(), metrics);
+        return createMetamodel(eRoot, model, metrics, ePackageGenerator);
+    }
+
+    /**
+     * Generates the Java code of {@link EClassifier}s if it is enabled.
+     */
+    private void generateCode(ExtractionProperties snapshot, Map<EClassifier, ExtractedType> eClassifiers,
+            ExtractionMetrics metrics) {
+        if (snapshot.get(BinaryProperty.JAVA_CODE)) {
+            metrics.begin(Phase.CODE);
+            File directory = new File(snapshot.get(TextProperty.JAVA_CODE_DIRECTORY));
+            new JavaCodeGenerator(directory).generate(eClassifiers);
+            metrics.end(Phase.CODE);
+        }
+    }
+
     /**
      * Checks whether a strategy class fits to a strategy name.
      */
     private boolean isStrategy(Class<? extends AbstractSavingStrategy> strategy, String strategyName) {
         return strategy.getSimpleName().startsWith(strategyName);
     }
-}
\ No newline at end of file
+}
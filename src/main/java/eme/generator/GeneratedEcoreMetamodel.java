@@ -3,15 +3,24 @@ package eme.generator;
 import org.eclipse.emf.ecore.EPackage;
 
 import eme.generator.saving.SavingInformation;
+import eme.metrics.ExtractionMetrics;
 import eme.model.IntermediateModel;
+import eme.properties.ExtractionProperties;
 
 /**
  * This is a container class for generated Ecore metamodels. It contains a reference to the metamodels root element and
- * the metamodels intermediate model. Additionally, it can contain saving information.
+ * the metamodels intermediate model and the metrics of its extraction. Additionally, it can contain saving information.
+ * A metamodel of the {@link EcoreMetamodelGenerator} keeps the properties snapshot it was generated with, which is
+ * also used to save it.
+ * If incremental updates are enabled, a metamodel of the {@link EcoreMetamodelGenerator} also keeps its generator,
+ * which allows to update it in place.
  * @author Timur Saglam
  */
 public class GeneratedEcoreMetamodel {
+    private final EPackageGenerator generator; // null if the metamodel can not be updated in place
     private final IntermediateModel intermediateModel;
+    private final ExtractionMetrics metrics;
+    private final ExtractionProperties properties; // null if not generated by the generator
     private final EPackage root;
     private SavingInformation savingInformation;
 
@@ -21,8 +30,30 @@ public class GeneratedEcoreMetamodel {
      * @param intermediateModel is the {@link IntermediateModel} which was used to generate the Ecore metamodel.
      */
     public GeneratedEcoreMetamodel(EPackage root, IntermediateModel intermediateModel) {
+        this(root, intermediateModel, new ExtractionMetrics(intermediateModel.getProjectName()));
+    }
+
+    /**
+     * Constructor that sets the metrics of the extraction.
+     * @param root is the root {@link EPackage} of the generated Ecore metamodel.
+     * @param intermediateModel is the {@link IntermediateModel} which was used to generate the Ecore metamodel.
+     * @param metrics are the {@link ExtractionMetrics} of the extraction.
+     */
+    public GeneratedEcoreMetamodel(EPackage root, IntermediateModel intermediateModel, ExtractionMetrics metrics) {
+        this(root, intermediateModel, metrics, null, null);
+    }
+
+    /**
+     * Constructor that sets the metrics of the extraction, the properties snapshot of the generation and optionally the
+     * generator that generated the metamodel, which allows to update the metamodel in place.
+     */
+    GeneratedEcoreMetamodel(EPackage root, IntermediateModel intermediateModel, ExtractionMetrics metrics,
+            ExtractionProperties properties, EPackageGenerator generator) {
         this.root = root;
         this.intermediateModel = intermediateModel;
+        this.metrics = metrics;
+        this.properties = properties;
+        this.generator = generator;
     }
 
     /**
@@ -33,6 +64,32 @@ public class GeneratedEcoreMetamodel {
         return intermediateModel;
     }
 
+    /**
+     * Accessor for the generator that generated the metamodel.
+     * @return the {@link EPackageGenerator} or null if the metamodel was not generated by the
+     * {@link EcoreMetamodelGenerator} or without incremental updates.
+     */
+    EPackageGenerator getGenerator() {
+        return generator;
+    }
+
+    /**
+     * Accessor for the {@link ExtractionMetrics} of the extraction.
+     * @return the metrics.
+     */
+    public ExtractionMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Accessor for the properties snapshot the metamodel was generated with.
+     * @return the {@link ExtractionProperties} or null if the metamodel was not generated by the
+     * {@link EcoreMetamodelGenerator}.
+     */
+    ExtractionProperties getProperties() {
+        return properties;
+    }
+
     /**
      * Accessor for the root {@link EPackage}.
      * @return the root.
@@ -0,0 +1,99 @@
+package eme.generator;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.EClassifier;
+import org.eclipse.emf.ecore.EEnum;
+
+import eme.extractor.code.JavaType;
+import eme.model.ExtractedType;
+
+/**
+ * Generator class for the Java code of generated {@link EClass}es and {@link EEnum}s, which uses the {@link JavaType}s
+ * of the code package. The code generation is a separate stage after the completion of the classifiers. Every
+ * classifier is written into its own file in the package directories of an output directory. The files are written
+ * concurrently, each through a buffered writer on a file channel, which streams the code instead of building it in
+ * memory.
+ * @author Timur Saglam
+ */
+public class JavaCodeGenerator {
+    private static final int BUFFER_SIZE = 8192;
+    private static final Logger logger = LogManager.getLogger(JavaCodeGenerator.class.getName());
+    private final File outputDirectory;
+
+    /**
+     * Basic constructor.
+     * @param outputDirectory is the directory the code is written to. Existing files are overwritten.
+     */
+    public JavaCodeGenerator(File outputDirectory) {
+        this.outputDirectory = outputDirectory;
+    }
+
+    /**
+     * Generates the Java code of {@link EClassifier}s and writes it into the output directory. Classifiers that are
+     * neither {@link EClass}es nor {@link EEnum}s are ignored.
+     * @param eClassifiers maps the {@link EClassifier}s to the {@link ExtractedType}s they were generated from.
+     */
+    public void generate(Map<EClassifier, ExtractedType> eClassifiers) {
+        ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>(eClassifiers.size());
+        try {
+            for (Map.Entry<EClassifier, ExtractedType> entry : eClassifiers.entrySet()) { // one task per classifier
+                JavaType javaType = JavaType.create(entry.getKey(), entry.getValue());
+                if (javaType != null) {
+                    futures.add(pool.submit(() -> write(javaType)));
+                }
+            }
+            int files = 0;
+            for (Future<Boolean> future : futures) {
+                files += future.get() ? 1 : 0;
+            }
+            logger.info("Generated " + files + " Java files into " + outputDirectory.getAbsolutePath());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating the Java code.", exception);
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException("Could not generate the Java code.", exception.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Writes a single Java file and returns whether it was written.
+     */
+    private boolean write(JavaType javaType) {
+        Path path = javaType.resolve(outputDirectory.toPath());
+        try {
+            Files.createDirectories(path.getParent());
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+                    Writer writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE))) {
+                javaType.write(writer);
+            }
+            return true;
+        } catch (IOException exception) {
+            logger.error("Error while writing the Java file " + path, exception);
+            return false;
+        }
+    }
+}
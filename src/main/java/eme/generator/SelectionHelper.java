@@ -6,16 +6,17 @@ import static eme.model.datatypes.AccessLevelModifier.PROTECTED;
 import static eme.model.datatypes.AccessLevelModifier.PUBLIC;
 
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
 import eme.model.ExtractedClass;
-import eme.model.ExtractedEnum;
 import eme.model.ExtractedInterface;
 import eme.model.ExtractedMethod;
 import eme.model.ExtractedPackage;
@@ -27,24 +28,42 @@ import eme.model.datatypes.ExtractedField;
 import eme.model.datatypes.ExtractedParameter;
 import eme.properties.BinaryProperty;
 import eme.properties.ExtractionProperties;
+import eme.properties.TextProperty;
 
 /**
  * This class helps to decide whether a extracted element may be generated or not. It combines rules from a properties
- * class with the selection states of the model elements themselves.
+ * class with the selection states of the model elements themselves. The binary properties are compiled once into a
+ * bitmask, the collection types into hash sets, and the ungenerated elements are counted in atomic arrays, which
+ * means the checks neither allocate nor lock and can be used by multiple threads at the same time.
  * @author Timur Saglam
  */
 public class SelectionHelper {
     private static final Logger logger = LogManager.getLogger(SelectionHelper.class.getName());
+    private final Set<String> collectionTypes;
+    private final Set<String> listInterfaces;
+    private final long policy; // one bit per binary property
     private final ExtractionProperties properties;
-    private final Map<String, Integer> reportMap;
+    private final AtomicIntegerArray ungeneratedElements; // indexed by Element
+    private final AtomicIntegerArray ungeneratedMethods; // indexed by MethodType
 
     /**
-     * Simple constructor, sets the {@link ExtractionProperties} object.
+     * Simple constructor, sets the {@link ExtractionProperties} object and compiles its binary properties. Later changes
+     * of the properties do not affect the selection helper.
      * @param properties are the extraction properties.
      */
     public SelectionHelper(ExtractionProperties properties) {
         this.properties = properties;
-        reportMap = new HashMap<String, Integer>();
+        long compiledPolicy = 0;
+        for (BinaryProperty property : BinaryProperty.values()) {
+            if (properties.get(property)) {
+                compiledPolicy |= 1L << property.ordinal();
+            }
+        }
+        policy = compiledPolicy;
+        collectionTypes = compileSet(properties.get(TextProperty.DATATYPES_TO_CONVERT_TO_EREFERENCE));
+        listInterfaces = compileSet(properties.get(TextProperty.DATATYPE_INTERFACES_TO_CONVERT_TO_EREFERENCE));
+        ungeneratedElements = new AtomicIntegerArray(Element.values().length);
+        ungeneratedMethods = new AtomicIntegerArray(MethodType.values().length);
     }
 
     /**
@@ -54,12 +73,12 @@ public class SelectionHelper {
      */
     public boolean allowsGenerating(ExtractedField attribute) {
         AccessLevelModifier modifier = attribute.getModifier();
-        boolean allowed = !attribute.isStatic() || properties.get(BinaryProperty.STATIC_FIELDS);
-        allowed &= modifier != PUBLIC || properties.get(BinaryProperty.PUBLIC_FIELDS);
-        allowed &= modifier != NO_MODIFIER || properties.get(BinaryProperty.DEFAULT_FIELDS);
-        allowed &= modifier != PROTECTED || properties.get(BinaryProperty.PROTECTED_FIELDS);
-        allowed &= modifier != PRIVATE || properties.get(BinaryProperty.PRIVATE_FIELDS);
-        return report("attribute", allowed);
+        boolean allowed = !attribute.isStatic() || allows(BinaryProperty.STATIC_FIELDS);
+        allowed &= modifier != PUBLIC || allows(BinaryProperty.PUBLIC_FIELDS);
+        allowed &= modifier != NO_MODIFIER || allows(BinaryProperty.DEFAULT_FIELDS);
+        allowed &= modifier != PROTECTED || allows(BinaryProperty.PROTECTED_FIELDS);
+        allowed &= modifier != PRIVATE || allows(BinaryProperty.PRIVATE_FIELDS);
+        return report(Element.ATTRIBUTE, allowed);
     }
 
     /**
@@ -71,16 +90,19 @@ public class SelectionHelper {
         AccessLevelModifier modifier = method.getModifier();
         MethodType type = method.getMethodType();
         boolean allowed = method.isSelected();
-        allowed &= type != MethodType.CONSTRUCTOR || properties.get(BinaryProperty.CONSTRUCTORS);
-        allowed &= !method.isAbstract() || properties.get(BinaryProperty.ABSTRACT_METHODS);
-        allowed &= !method.isStatic() || properties.get(BinaryProperty.STATIC_METHODS);
-        allowed &= modifier != NO_MODIFIER || properties.get(BinaryProperty.DEFAULT_METHODS);
-        allowed &= modifier != PUBLIC || properties.get(BinaryProperty.PUBLIC_METHODS);
-        allowed &= modifier != PROTECTED || properties.get(BinaryProperty.PROTECTED_METHODS);
-        allowed &= modifier != PRIVATE || properties.get(BinaryProperty.PRIVATE_METHODS);
-        allowed &= type != MethodType.ACCESSOR || properties.get(BinaryProperty.ACCESS_METHODS);
-        allowed &= type != MethodType.MUTATOR || properties.get(BinaryProperty.ACCESS_METHODS);
-        return report(type.toString(), allowed);
+        allowed &= type != MethodType.CONSTRUCTOR || allows(BinaryProperty.CONSTRUCTORS);
+        allowed &= !method.isAbstract() || allows(BinaryProperty.ABSTRACT_METHODS);
+        allowed &= !method.isStatic() || allows(BinaryProperty.STATIC_METHODS);
+        allowed &= modifier != NO_MODIFIER || allows(BinaryProperty.DEFAULT_METHODS);
+        allowed &= modifier != PUBLIC || allows(BinaryProperty.PUBLIC_METHODS);
+        allowed &= modifier != PROTECTED || allows(BinaryProperty.PROTECTED_METHODS);
+        allowed &= modifier != PRIVATE || allows(BinaryProperty.PRIVATE_METHODS);
+        allowed &= type != MethodType.ACCESSOR || allows(BinaryProperty.ACCESS_METHODS);
+        allowed &= type != MethodType.MUTATOR || allows(BinaryProperty.ACCESS_METHODS);
+        if (!allowed) {
+            ungeneratedMethods.incrementAndGet(type.ordinal());
+        }
+        return allowed;
     }
 
     /**
@@ -90,8 +112,8 @@ public class SelectionHelper {
      */
     public boolean allowsGenerating(ExtractedPackage subpackage) {
         boolean allowed = subpackage.isSelected();
-        allowed &= !subpackage.isEmpty() || properties.get(BinaryProperty.EMPTY_PACKAGES);
-        return report("package", allowed);
+        allowed &= !subpackage.isEmpty() || allows(BinaryProperty.EMPTY_PACKAGES);
+        return report(Element.PACKAGE, allowed);
     }
 
     /**
@@ -100,16 +122,17 @@ public class SelectionHelper {
      * @return true if it may be generated.
      */
     public boolean allowsGenerating(ExtractedType type) {
-        boolean allowed = type.isSelected() && (!type.isInnerType() || properties.get(BinaryProperty.NESTED_TYPES));
+        boolean allowed = type.isSelected() && (!type.isInnerType() || allows(BinaryProperty.NESTED_TYPES));
         if (type instanceof ExtractedClass) {
-            allowed &= properties.get(BinaryProperty.CLASSES);
-            allowed &= !((ExtractedClass) type).isThrowable() || properties.get(BinaryProperty.THROWABLES);
+            allowed &= allows(BinaryProperty.CLASSES);
+            allowed &= !((ExtractedClass) type).isThrowable() || allows(BinaryProperty.THROWABLES);
+            return report(Element.CLASS, allowed);
         } else if (type instanceof ExtractedInterface) {
-            allowed &= properties.get(BinaryProperty.INTERFACES);
-        } else if (type instanceof ExtractedEnum) {
-            allowed &= properties.get(BinaryProperty.ENUMS);
+            allowed &= allows(BinaryProperty.INTERFACES);
+            return report(Element.INTERFACE, allowed);
         }
-        return report(type.getClass().getSimpleName().substring(9).toLowerCase(), allowed); // class, interface, enum
+        allowed &= allows(BinaryProperty.ENUMS);
+        return report(Element.ENUM, allowed);
     }
 
     /**
@@ -117,15 +140,15 @@ public class SelectionHelper {
      * multiplicities depending on the actual type of the {@link ExtractedDataType}.
      * @param dataType is the {@link ExtractedDataType}.
      * @return true if they should.
-     * @see ExtractedDataType#isListType()
+     * @see #isListType(ExtractedDataType)
      */
     public boolean allowsMultiplicities(ExtractedDataType dataType) {
         if (dataType instanceof ExtractedField) {
-            return properties.get(BinaryProperty.FIELD_MULTIPLICITIES);
+            return allows(BinaryProperty.FIELD_MULTIPLICITIES);
         } else if (dataType instanceof ExtractedParameter) {
-            return properties.get(BinaryProperty.PARAMETER_MULTIPLICITIES);
+            return allows(BinaryProperty.PARAMETER_MULTIPLICITIES);
         } else {
-            return properties.get(BinaryProperty.RETURN_TYPE_MULTIPLICITIES);
+            return allows(BinaryProperty.RETURN_TYPE_MULTIPLICITIES);
         }
     }
 
@@ -134,7 +157,7 @@ public class SelectionHelper {
      * @return true if they are.
      */
     public boolean allowsUnchangeable() {
-        return properties.get(BinaryProperty.FINAL_AS_UNCHANGEABLE);
+        return allows(BinaryProperty.FINAL_AS_UNCHANGEABLE);
     }
 
     /**
@@ -142,16 +165,25 @@ public class SelectionHelper {
      * intermediate models how many of them were not generated due to selection or properties.
      */
     public void generateReport() {
-        if (reportMap.isEmpty()) {
+        Map<String, Integer> report = new TreeMap<String, Integer>(); // sorted by element name
+        for (Element element : Element.values()) {
+            if (ungeneratedElements.get(element.ordinal()) > 0) {
+                report.put(element.getName(), ungeneratedElements.get(element.ordinal()));
+            }
+        }
+        for (MethodType type : MethodType.values()) {
+            if (ungeneratedMethods.get(type.ordinal()) > 0) {
+                report.put(type.toString(), ungeneratedMethods.get(type.ordinal()));
+            }
+        }
+        if (report.isEmpty()) {
             logger.info("There were no ungenerated elements.");
         } else {
             logger.info("There were ungenerated elements because of selection and/or properties:");
-            LinkedList<String> list = new LinkedList<String>(reportMap.keySet());
-            Collections.sort(list); // sort keys
             String pluralSuffix;
-            for (String element : list) { // for every reported element
+            for (String element : report.keySet()) { // for every reported element
                 pluralSuffix = element.endsWith("s") ? "es" : "s"; // add plural suffix
-                logger.info("   " + element + pluralSuffix + ": " + reportMap.get(element)); // print
+                logger.info("   " + element + pluralSuffix + ": " + report.get(element)); // print
             }
         }
     }
@@ -165,19 +197,70 @@ public class SelectionHelper {
     }
 
     /**
-     * Increases the number of ungenerated features for a specific type of features.
+     * Checks whether a {@link ExtractedDataType} is a Java collection that is represented through an EReference, which
+     * means it is either one of the configured collection types or a list type.
+     * @param dataType is the {@link ExtractedDataType}.
+     * @return true if it is.
+     */
+    public boolean isCollectionType(ExtractedDataType dataType) {
+        return collectionTypes.contains(dataType.getFullArrayType()) || isListType(dataType);
+    }
+
+    /**
+     * Checks whether a {@link ExtractedDataType} is a list type with the configured list interfaces.
+     * @param dataType is the {@link ExtractedDataType}.
+     * @return true if it is.
+     * @see ExtractedDataType#isListType(Set)
+     */
+    public boolean isListType(ExtractedDataType dataType) {
+        return dataType.isListType(listInterfaces);
+    }
+
+    /**
+     * Checks a binary property in the compiled policy.
+     */
+    private boolean allows(BinaryProperty property) {
+        return (policy & 1L << property.ordinal()) != 0;
+    }
+
+    /**
+     * Compiles a comma separated list of type names into an immutable set.
+     */
+    private Set<String> compileSet(String typeNames) {
+        Set<String> set = new HashSet<String>();
+        for (String typeName : typeNames.split(",")) {
+            if (!typeName.trim().isEmpty()) {
+                set.add(typeName.trim());
+            }
+        }
+        return Collections.unmodifiableSet(set);
+    }
+
+    /**
+     * Increases the number of ungenerated elements of a specific kind.
+     * @param element is the kind of the element.
      * @param allowed specifies whether the generation should be allowed or not.
-     * @param feature is the specific type of features.
      * @return the value of the parameter allowed
      */
-    private boolean report(String feature, boolean allowed) {
+    private boolean report(Element element, boolean allowed) {
         if (!allowed) { // if generating was not allowed:
-            if (reportMap.containsKey(feature)) { // if has already reported on feature
-                reportMap.put(feature, reportMap.get(feature) + 1); // increase
-            } else { // if never reported on feature
-                reportMap.put(feature, 1); // create new entry for feature
-            }
+            ungeneratedElements.incrementAndGet(element.ordinal());
         }
         return allowed; // return whether it was allowed or not.
     }
+
+    /**
+     * The kinds of elements that are counted in the report, except methods, which are counted by their
+     * {@link MethodType}.
+     */
+    private enum Element {
+        ATTRIBUTE, CLASS, ENUM, INTERFACE, PACKAGE;
+
+        /**
+         * Returns the name of the element kind in the report.
+         */
+        String getName() {
+            return name().toLowerCase();
+        }
+    }
 }
\ No newline at end of file
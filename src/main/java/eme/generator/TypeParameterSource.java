@@ -1,39 +1,42 @@
 package eme.generator;
 
-import java.util.LinkedList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
-import org.eclipse.emf.common.util.BasicEList;
-import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EClassifier;
 import org.eclipse.emf.ecore.EOperation;
 import org.eclipse.emf.ecore.ETypeParameter;
-import org.eclipse.emf.ecore.impl.EOperationImpl;
 
 import eme.model.datatypes.ExtractedDataType;
 
 /**
- * This class serves as source for {@link ETypeParameter}s. It contains an {@link EClassifier} and sometimes an
- * {@link EOperation}. Both the class {@link EClassifier} and {@link EOperation} can own {@link ETypeParameter}s. Both
- * of them have a method to access them. But despite the identical signature of the method, this method is not inherited
- * by a common super class or defined in a common interface. This class bypasses this problem by defining one class that
- * can return {@link ETypeParameter}s from both an {@link EOperation} and an {@link EClassifier}. Additionally, when
- * created from an {@link EOperation}, it can be used to locate {@link ETypeParameter} from the {@link EOperation} and
- * the containing {@link EClass} of the {@link EOperation} at the same time.
+ * This class serves as source for {@link ETypeParameter}s. It contains the {@link ETypeParameter}s of an
+ * {@link EClassifier} and sometimes of an {@link EOperation}. Both the class {@link EClassifier} and {@link EOperation}
+ * can own {@link ETypeParameter}s. Both of them have a method to access them. But despite the identical signature of
+ * the method, this method is not inherited by a common super class or defined in a common interface. This class
+ * bypasses this problem by defining one class that can return {@link ETypeParameter}s from both an {@link EOperation}
+ * and an {@link EClassifier}. Additionally, when created for an {@link EOperation}, it can be used to locate
+ * {@link ETypeParameter} from the {@link EOperation} and the containing {@link EClass} of the {@link EOperation} at the
+ * same time, where the {@link ETypeParameter}s of the {@link EOperation} hide the ones of the {@link EClass}. The
+ * {@link ETypeParameter}s are indexed by name when the source is created, which means a source has to be created after
+ * the {@link ETypeParameter}s were added, and that lookups do not allocate. One source can be reused for all members of
+ * a classifier.
  * @author Timur Saglam
  */
 public class TypeParameterSource {
-    private final EClassifier classifier;
-    private EOperation operation;
+    private final TypeParameterSource outerSource; // source of the classifier for an operation, else null
+    private final Map<String, ETypeParameter> typeParameters;
 
     /**
      * Creates new type parameter source from an {@link EClassifier}.
      * @param classifier is the source {@link EClassifier}.
      */
     public TypeParameterSource(EClassifier classifier) {
-        this(classifier, null); // no operation
-        operation = new NullOperation();
+        outerSource = null; // no operation
+        typeParameters = index(classifier.getETypeParameters());
     }
 
     /**
@@ -45,13 +48,24 @@ public class TypeParameterSource {
     }
 
     /**
-     * Creates new type parameter source.
+     * Creates new type parameter source from an {@link EOperation} and the {@link EClassifier} that contains it. The
+     * {@link EOperation} does not need to be contained yet, which allows to build it detached from the classifier.
      * @param classifier is an {@link EClassifier} as source.
      * @param operation is an {@link EOperation} as source.
      */
-    private TypeParameterSource(EClassifier classifier, EOperation operation) {
-        this.classifier = classifier;
-        this.operation = operation;
+    public TypeParameterSource(EClassifier classifier, EOperation operation) {
+        this(new TypeParameterSource(classifier), operation);
+    }
+
+    /**
+     * Creates new type parameter source from an {@link EOperation} and the existing source of the {@link EClassifier}
+     * that contains it. The source of the {@link EClassifier} is shared, not copied.
+     * @param classifierSource is the {@link TypeParameterSource} of the {@link EClassifier}.
+     * @param operation is an {@link EOperation} as source.
+     */
+    public TypeParameterSource(TypeParameterSource classifierSource, EOperation operation) {
+        outerSource = classifierSource;
+        typeParameters = index(operation.getETypeParameters());
     }
 
     /**
@@ -70,37 +84,34 @@ public class TypeParameterSource {
      * @return the {@link ETypeParameter} or null if there is no matching {@link ETypeParameter}.
      */
     public ETypeParameter getTypeParameter(ExtractedDataType dataType) {
-        String name = dataType.getFullType();
-        ETypeParameter parameter = find(name, operation.getETypeParameters());
-        if (parameter == null) {
-            return find(name, classifier.getETypeParameters());
+        ETypeParameter parameter = typeParameters.get(dataType.getFullType());
+        if (parameter == null && outerSource != null) {
+            return outerSource.getTypeParameter(dataType);
         }
         return parameter;
     }
 
     @Override
     public String toString() {
-        List<ETypeParameter> classParameters = new LinkedList<>(classifier.getETypeParameters());
-        List<ETypeParameter> operationParameters = new LinkedList<>(operation.getETypeParameters());
-        return getClass().getSimpleName() + "(fromClass" + classParameters + " fromMethod" + operationParameters + ")";
+        if (outerSource == null) {
+            return getClass().getSimpleName() + "(fromClass" + typeParameters.keySet() + ")";
+        }
+        return getClass().getSimpleName() + "(fromClass" + outerSource.typeParameters.keySet() + " fromMethod" + typeParameters.keySet()
+                + ")";
     }
 
     /**
-     * Finds and returns an {@link ETypeParameter} in an {@link List} of {@link ETypeParameter}s.
+     * Indexes a list of {@link ETypeParameter}s by their names. Most members have no type parameters, they share the
+     * empty map.
      */
-    private ETypeParameter find(String name, EList<ETypeParameter> list) {
-        for (ETypeParameter parameter : list) {
-            if (parameter.getName().equals(name)) {
-                return parameter;
-            }
+    private static Map<String, ETypeParameter> index(List<ETypeParameter> parameters) {
+        if (parameters.isEmpty()) {
+            return Collections.emptyMap();
         }
-        return null;
-    }
-
-    private class NullOperation extends EOperationImpl {
-        @Override
-        public EList<ETypeParameter> getETypeParameters() {
-            return new BasicEList<ETypeParameter>();
+        Map<String, ETypeParameter> index = new HashMap<String, ETypeParameter>();
+        for (ETypeParameter parameter : parameters) {
+            index.putIfAbsent(parameter.getName(), parameter); // first parameter of a name wins
         }
+        return index;
     }
-}
\ No newline at end of file
+}
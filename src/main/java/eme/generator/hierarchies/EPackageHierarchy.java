@@ -1,12 +1,13 @@
 package eme.generator.hierarchies;
 
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RecursiveAction;
 
-import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.common.util.ECollections;
 import org.eclipse.emf.ecore.EClassifier;
 import org.eclipse.emf.ecore.ENamedElement;
 import org.eclipse.emf.ecore.EPackage;
@@ -15,12 +16,18 @@ import org.eclipse.emf.ecore.EcoreFactory;
 import eme.properties.ExtractionProperties;
 
 /**
- * This class allows to build a package structure, a {@link EPackage} hierarchy for {@link EClassifier}s.
+ * This class allows to build a package structure, a {@link EPackage} hierarchy for {@link EClassifier}s. The hierarchy
+ * indexes the subpackages of every visited package by their names, which means adding a classifier costs one lookup per
+ * package of its path. Subpackages therefore may only be added through the hierarchy once it visited their package.
  * @author Timur Saglam
  */
 public class EPackageHierarchy {
+    private static final Comparator<String> NAME_ORDER = String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder());
+    private static final Comparator<ENamedElement> ELEMENT_ORDER = Comparator.comparing(ENamedElement::getName, NAME_ORDER);
+    private static final int PARALLEL_THRESHOLD = 32; // subpackages of a package that are sorted in parallel
     protected final EPackage basePackage;
     protected final ExtractionProperties properties;
+    private final Map<EPackage, Map<String, EPackage>> subpackageIndex;
 
     /**
      * Basic constructor.
@@ -30,6 +37,7 @@ public class EPackageHierarchy {
     protected EPackageHierarchy(EPackage basePackage, ExtractionProperties properties) {
         this.basePackage = basePackage;
         this.properties = properties;
+        subpackageIndex = new HashMap<EPackage, Map<String, EPackage>>();
     }
 
     /**
@@ -46,54 +54,65 @@ public class EPackageHierarchy {
     }
 
     /**
-     * Sorts the content of the package hierarchy.
+     * Removes an {@link EClassifier} from the package hierarchy. The packages that are empty afterwards are removed too,
+     * except for the base package.
+     * @param classifier is the {@link EClassifier} to remove.
      */
-    public void sort() {
-        sort(basePackage);
+    public void remove(EClassifier classifier) {
+        EPackage ePackage = classifier.getEPackage();
+        ePackage.getEClassifiers().remove(classifier);
+        while (ePackage != basePackage && ePackage.getEClassifiers().isEmpty() && ePackage.getESubpackages().isEmpty()) {
+            EPackage superPackage = ePackage.getESuperPackage();
+            superPackage.getESubpackages().remove(ePackage);
+            subpackageIndex.remove(ePackage);
+            Map<String, EPackage> siblings = subpackageIndex.get(superPackage);
+            if (siblings != null) { // package was indexed
+                siblings.remove(ePackage.getName(), ePackage);
+            }
+            ePackage = superPackage;
+        }
     }
 
     /**
-     * Sorts a list of {@link ENamedElement}s. The Interface {@link ENamedElement} does not implement the Interface
-     * {@link Comparable}.
+     * Sorts the content of the package hierarchy by name. The sort is stable and in place, which means elements with the
+     * same name keep their order and no element is removed from its package. The subpackages of packages with many
+     * subpackages are sorted in parallel.
      */
-    private <T extends ENamedElement> void sort(EList<T> list) {
-        Map<String, T> elementMap = new HashMap<String, T>();
-        for (T element : list) { // for every classifier:
-            elementMap.put(element.getName(), element); // map with its name as key
-        }
-        list.clear(); // clear original list
-        List<String> elementNames = new LinkedList<String>(elementMap.keySet()); // add names to list
-        Collections.sort(elementNames, String.CASE_INSENSITIVE_ORDER); // sort names
-        for (String name : elementNames) { // in sorted order
-            list.add(elementMap.get(name)); // add classifiers from map to original list
-        }
+    public void sort() {
+        new SortTask(basePackage).invoke();
     }
 
     /**
-     * Recursive sort method. See <code>DataTypeHierarchy.sort()</code>.
+     * Indexes the existing subpackages of an {@link EPackage} by their names. If names are ambiguous, the first
+     * subpackage is used.
      */
-    private void sort(EPackage ePackage) {
-        sort(ePackage.getEClassifiers()); // sort classifiers
-        sort(ePackage.getESubpackages()); // sort packages
-        for (EPackage subpackage : ePackage.getESubpackages()) {
-            sort(subpackage); // recursive call for every subpackage
+    private Map<String, EPackage> indexSubpackages(EPackage ePackage) {
+        Map<String, EPackage> subpackages = new HashMap<String, EPackage>();
+        for (EPackage subpackage : ePackage.getESubpackages()) { // for all subpackages
+            subpackages.putIfAbsent(subpackage.getName(), subpackage);
         }
+        return subpackages;
     }
 
     /**
      * Checks whether an {@link EPackage} has a subpackage with a specific name. If it has, the subpackage is returned.
-     * If it has not, a new empty one is created.
+     * If it has not, a new empty one is created. The subpackages of an {@link EPackage} are indexed on the first call.
      * @param name is the name of the desired subpackage.
      * @param superPackage is the {@link EPackage} to search in.
      * @return the subpackage.
      */
     protected EPackage getSubpackage(String name, EPackage superPackage) {
-        for (EPackage subpackage : superPackage.getESubpackages()) { // for all subpackages
-            if (name.equals(subpackage.getName())) { // check if it is the wanted package
-                return subpackage;
-            }
-        } // if wanted package does not exist:
-        return generatePackage(name, superPackage); // create new
+        Map<String, EPackage> subpackages = subpackageIndex.get(superPackage);
+        if (subpackages == null) { // first visit of the package
+            subpackages = indexSubpackages(superPackage);
+            subpackageIndex.put(superPackage, subpackages);
+        }
+        EPackage subpackage = subpackages.get(name);
+        if (subpackage == null) { // if wanted package does not exist:
+            subpackage = generatePackage(name, superPackage); // create new
+            subpackages.put(name, subpackage);
+        }
+        return subpackage;
     }
 
     /**
@@ -123,4 +142,43 @@ public class EPackageHierarchy {
         superPackage.getESubpackages().add(ePackage); // add to the super package
         return ePackage;
     }
+
+    /**
+     * Recursive sort task for an {@link EPackage} and its subpackages. The notifications of the package are disabled
+     * while its lists are sorted.
+     */
+    private static class SortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final transient EPackage ePackage;
+
+        /**
+         * Basic constructor.
+         */
+        SortTask(EPackage ePackage) {
+            this.ePackage = ePackage;
+        }
+
+        @Override
+        protected void compute() {
+            boolean deliver = ePackage.eDeliver();
+            ePackage.eSetDeliver(false); // no notifications for the moves
+            try {
+                ECollections.sort(ePackage.getEClassifiers(), ELEMENT_ORDER); // sort classifiers
+                ECollections.sort(ePackage.getESubpackages(), ELEMENT_ORDER); // sort packages
+            } finally {
+                ePackage.eSetDeliver(deliver);
+            }
+            if (ePackage.getESubpackages().size() < PARALLEL_THRESHOLD) {
+                for (EPackage subpackage : ePackage.getESubpackages()) {
+                    new SortTask(subpackage).compute(); // recursive call for every subpackage
+                }
+            } else { // wide hierarchy:
+                List<SortTask> tasks = new ArrayList<SortTask>();
+                for (EPackage subpackage : ePackage.getESubpackages()) {
+                    tasks.add(new SortTask(subpackage));
+                }
+                invokeAll(tasks); // fork one task per subpackage
+            }
+        }
+    }
 }
\ No newline at end of file
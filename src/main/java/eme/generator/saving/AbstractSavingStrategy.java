@@ -22,6 +22,12 @@ import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
 import org.eclipse.emf.ecore.xmi.impl.XMIResourceFactoryImpl;
 
+import eme.metrics.ExtractionEvent;
+import eme.metrics.ExtractionEvents;
+import eme.metrics.ExtractionMetrics;
+import eme.model.IntermediateModel;
+import eme.model.IntermediateModelSnapshot;
+
 /**
  * This is the abstract super class for all saving strategies.
  * @author Timur Saglam
@@ -57,12 +63,12 @@ public abstract class AbstractSavingStrategy {
      * @return the saving information.
      */
     public SavingInformation save(EPackage ePackage, String projectName) {
+        ExtractionEvent event = ExtractionEvents.beginSave(projectName);
         beforeSaving(projectName);
         ePackage.eClass(); // Initialize the EPackage:
-        Resource.Factory.Registry registry = Resource.Factory.Registry.INSTANCE;
-        Map<String, Object> map = registry.getExtensionToFactoryMap();
-        map.put(EcorePackage.eNAME, new XMIResourceFactoryImpl());  // add default extension
         ResourceSet resourceSet = new ResourceSetImpl(); // get new resource set
+        Map<String, Object> map = resourceSet.getResourceFactoryRegistry().getExtensionToFactoryMap(); // local registry
+        map.put(EcorePackage.eNAME, new XMIResourceFactoryImpl());  // add default extension
         Resource resource = null; // create a resource:
         String fileName = getFileName(); // get name
         String filePath = getFilePath(); // get path
@@ -81,7 +87,45 @@ public abstract class AbstractSavingStrategy {
             refreshFolder(getFilePath());
         }
         logger.info("The extracted metamodel was saved under: " + getFilePath());
-        return new SavingInformation(filePath, fileName);
+        SavingInformation savingInformation = new SavingInformation(filePath, fileName);
+        event.commit(ExtractionEvents.isRecorded(event) ? savingInformation.getFile().length() : 0, 0);
+        return savingInformation;
+    }
+
+    /**
+     * Saves {@link ExtractionMetrics} as JSON file next to a saved Ecore file. The JSON file has the name of the Ecore
+     * file with the extension ".metrics.json".
+     * @param metrics are the {@link ExtractionMetrics} to save.
+     * @param savingInformation is the {@link SavingInformation} of the saved Ecore file.
+     */
+    public void saveMetrics(ExtractionMetrics metrics, SavingInformation savingInformation) {
+        File file = new File(savingInformation.getFilePath() + savingInformation.getFileName() + ".metrics.json");
+        try {
+            metrics.writeJson(file);
+        } catch (IOException exception) {
+            logger.error("Error while saving the metrics.", exception);
+        }
+        if (saveInProject) {
+            refreshFolder(savingInformation.getFilePath());
+        }
+    }
+
+    /**
+     * Saves an {@link IntermediateModel} as {@link IntermediateModelSnapshot} next to a saved Ecore file. The snapshot
+     * has the name of the Ecore file with the extension ".snapshot" and can be used to generate the metamodel again.
+     * @param model is the {@link IntermediateModel} to save.
+     * @param savingInformation is the {@link SavingInformation} of the saved Ecore file.
+     */
+    public void saveSnapshot(IntermediateModel model, SavingInformation savingInformation) {
+        File file = new File(savingInformation.getFilePath() + savingInformation.getFileName() + ".snapshot");
+        try {
+            IntermediateModelSnapshot.write(model, file);
+        } catch (IOException exception) {
+            logger.error("Error while saving the intermediate model snapshot.", exception);
+        }
+        if (saveInProject) {
+            refreshFolder(savingInformation.getFilePath());
+        }
     }
 
     /**
@@ -104,6 +148,28 @@ public abstract class AbstractSavingStrategy {
      */
     protected abstract void beforeSaving(String projectName);
 
+    /**
+     * Checks whether a project is one of the projects that the saving strategies save the Ecore file of an extracted
+     * project in. This is the extracted project itself or a project that is named after it with a suffix and an
+     * optional version number, like the projects of the {@link NewProjectSaving} and the {@link CopyProjectSaving}.
+     * @param candidateName is the name of the project that is checked.
+     * @param projectName is the name of the extracted project.
+     * @param suffixBases are the base strings of the suffixes, see {@link #createSuffix(String, String)}.
+     * @return true if the project is a possible output project.
+     */
+    public static boolean isOutputProject(String candidateName, String projectName, String... suffixBases) {
+        if (candidateName.equals(projectName)) {
+            return true;
+        }
+        for (String suffixBase : suffixBases) {
+            String prefix = projectName + createSuffix(projectName, suffixBase);
+            if (candidateName.startsWith(prefix) && candidateName.substring(prefix.length()).matches("\\d*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Returns the project suffix, which basically is a separator character and a suffix base, depending on the naming
      * type of the projects name (e.g. "My-Project" and "model" will return "-Model").
@@ -112,7 +178,7 @@ public abstract class AbstractSavingStrategy {
      * @param suffixBase is the base string of the suffix.
      * @return the project suffix.
      */
-    protected String createSuffix(String projectName, String suffixBase) {
+    protected static String createSuffix(String projectName, String suffixBase) {
         char[] candidates = { ' ', '.', '-', '_', ':' }; // possible separators
         char separator = Character.MIN_VALUE; // 0000
         int mostFrequent = 0;
@@ -11,6 +11,7 @@ import eme.generator.EMFProjectGenerator;
  * @author Timur Saglam
  */
 public class NewProjectSaving extends AbstractSavingStrategy {
+    public static final String PROJECT_SUFFIX = "Model"; // suffix base of the generated projects
     private String fileName;
     private String generatedProjectName;
 
@@ -27,7 +28,7 @@ public class NewProjectSaving extends AbstractSavingStrategy {
     @Override
     protected void beforeSaving(String projectName) {
         fileName = projectName;
-        IProject newProject = EMFProjectGenerator.createProject(projectName + createSuffix(projectName, "Model"));
+        IProject newProject = EMFProjectGenerator.createProject(projectName + createSuffix(projectName, PROJECT_SUFFIX));
         this.generatedProjectName = newProject.getName();
     }
 
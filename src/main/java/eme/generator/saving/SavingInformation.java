@@ -24,6 +24,14 @@ public class SavingInformation {
         projectName = segments[segments.length - 2];
     }
 
+    /**
+     * Returns the saved Ecore file.
+     * @return the {@link File}.
+     */
+    public File getFile() {
+        return new File(filePath + fileName + ".ecore");
+    }
+
     /**
      * Accessor for the file name.
      * @return the name of file where the Ecore metamodel was saved in.
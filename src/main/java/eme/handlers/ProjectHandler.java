@@ -1,5 +1,8 @@
 package eme.handlers;
 
+import java.util.LinkedList;
+import java.util.List;
+
 import org.eclipse.core.commands.ExecutionEvent;
 import org.eclipse.core.commands.ExecutionException;
 import org.eclipse.core.resources.IProject;
@@ -11,6 +14,8 @@ import org.eclipse.ui.IWorkbenchWindow;
 import org.eclipse.ui.handlers.HandlerUtil;
 
 import eme.EcoreMetamodelExtraction;
+import eme.batch.BatchExtraction;
+import eme.batch.BatchExtractionJob;
 import eme.properties.ExtractionProperties;
 
 /**
@@ -42,22 +47,28 @@ public class ProjectHandler extends MainHandler {
 	@Override
 	public Object execute(ExecutionEvent event) throws ExecutionException {
 		ISelection selection = HandlerUtil.getActiveWorkbenchWindow(event).getActivePage().getSelection();
+		List<IProject> projects = new LinkedList<IProject>();
 		if (selection instanceof IStructuredSelection) {
 			for (Object element : (IStructuredSelection) selection) {
 				if (element instanceof IProject) {
 					IProject project = (IProject) element;
 					if (isJavaProject(project)) {
-						startExtraction((IProject) element);
+						projects.add(project);
 					} else {
 						projectMessage(event);
 					}
 				} else if (element instanceof IJavaProject) {
-					startExtraction(((IJavaProject) element).getProject());
+					projects.add(((IJavaProject) element).getProject());
 				} else {
 					throw new IllegalStateException("Invalid selection: " + element + " is not a project.");
 				}
 			}
 		}
+		if (projects.size() > 1) {
+			startBatchExtraction(projects);
+		} else {
+			projects.forEach(project -> startExtraction(project));
+		}
 		return null;
 	}
 
@@ -80,6 +91,18 @@ public class ProjectHandler extends MainHandler {
 		// Default: do nothing, use default properties.
 	}
 
+	/**
+	 * Starts the concurrent extraction of multiple projects as a background job with
+	 * the help of the class {@link BatchExtraction}.
+	 * 
+	 * @param projects is the list of projects to extract.
+	 */
+	protected void startBatchExtraction(List<IProject> projects) {
+		BatchExtraction extraction = new BatchExtraction(); // batch instance
+		configure(extraction.getProperties()); // configure extraction
+		new BatchExtractionJob(title, extraction, projects).schedule(); // start
+	}
+
 	/**
 	 * Starts the extraction by calling an extraction method from the class
 	 * {@link EcoreMetamodelExtraction}.
@@ -1,16 +1,24 @@
 package eme.handlers;
 
+import java.util.LinkedList;
+import java.util.List;
+
 import org.eclipse.core.commands.ExecutionEvent;
 import org.eclipse.core.commands.ExecutionException;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.resources.ResourcesPlugin;
-import org.eclipse.jface.dialogs.MessageDialog;
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.window.Window;
 import org.eclipse.ui.IWorkbenchWindow;
+import org.eclipse.ui.dialogs.ListSelectionDialog;
 import org.eclipse.ui.handlers.HandlerUtil;
 
 import eme.EcoreMetamodelExtraction;
+import eme.batch.BatchExtraction;
+import eme.batch.BatchExtractionJob;
 
 /**
  * Handler for calling an extraction method.
@@ -21,38 +29,59 @@ public class WorkspaceHandler extends MainHandler {
     private IWorkbenchWindow window;
 
     /**
-     * Accesses all the projects in the workspace and lets the user choose a project with a simple dialog.
-     * @return the chosen project.
+     * Accesses all the Java projects in the workspace and lets the user choose any number of them with a single dialog.
+     * All projects are selected initially.
+     * @return the chosen projects, which is an empty list if the dialog was canceled.
      */
-    public IProject chooseProject() {
-        IWorkspace workspace = ResourcesPlugin.getWorkspace();
-        IWorkspaceRoot root = workspace.getRoot();
-        IProject[] projects = root.getProjects();
-        for (IProject project : projects) {
-            if (isJavaProject(project) && isChoosen(project)) {
-                return project;
+    public List<IProject> chooseProjects() {
+        List<IProject> choices = getJavaProjects();
+        ListSelectionDialog dialog = new ListSelectionDialog(window.getShell(), choices, new ArrayContentProvider(),
+                new ProjectLabelProvider(), "Choose the projects to extract:");
+        dialog.setTitle(title);
+        dialog.setInitialElementSelections(choices);
+        List<IProject> projects = new LinkedList<IProject>();
+        if (dialog.open() == Window.OK) {
+            for (Object result : dialog.getResult()) {
+                projects.add((IProject) result);
             }
         }
-        return null;
+        return projects;
     }
 
     @Override
     public Object execute(ExecutionEvent event) throws ExecutionException {
         window = HandlerUtil.getActiveWorkbenchWindowChecked(event);
-        IProject project = chooseProject();
-        if (project != null) {
-            new EcoreMetamodelExtraction().extract(project);
+        List<IProject> projects = chooseProjects();
+        if (projects.size() == 1) {
+            new EcoreMetamodelExtraction().extract(projects.get(0));
+        } else if (!projects.isEmpty()) {
+            new BatchExtractionJob(title, new BatchExtraction(), projects).schedule();
         }
         return null;
     }
 
     /**
-     * Asks the user for one specific project with a simple message dialog.
-     * @param project is the name of the project.
-     * @return true if the project is chosen.
+     * Returns all Java projects of the workspace.
      */
-    private boolean isChoosen(IProject project) {
-        String message = "Choose " + project.getName() + "?";
-        return MessageDialog.openQuestion(window.getShell(), title, message);
+    private List<IProject> getJavaProjects() {
+        IWorkspace workspace = ResourcesPlugin.getWorkspace();
+        IWorkspaceRoot root = workspace.getRoot();
+        List<IProject> projects = new LinkedList<IProject>();
+        for (IProject project : root.getProjects()) {
+            if (isJavaProject(project)) {
+                projects.add(project);
+            }
+        }
+        return projects;
+    }
+
+    /**
+     * Label provider that shows the names of {@link IProject}s.
+     */
+    private static class ProjectLabelProvider extends LabelProvider {
+        @Override
+        public String getText(Object element) {
+            return ((IProject) element).getName();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,16 @@
+package eme.metrics;
+
+/**
+ * A running event of the extraction pipeline, which was started by one of the methods of {@link ExtractionEvents}.
+ * Committing an event records it together with two counts, whose meaning depends on the kind of event.
+ * @author Timur Saglam
+ */
+@FunctionalInterface
+public interface ExtractionEvent {
+    /**
+     * Ends and records the event.
+     * @param firstCount is the first count of the event, e.g. the number of fields of a type.
+     * @param secondCount is the second count of the event, e.g. the number of methods of a type.
+     */
+    void commit(long firstCount, long secondCount);
+}
@@ -0,0 +1,94 @@
+package eme.metrics;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+/**
+ * Entry point for the Java Flight Recorder events of the extraction pipeline. If the Java runtime provides the Flight
+ * Recorder, the events are emitted as JFR events. As long as no recording enables an event, or if the runtime does not
+ * provide the Flight Recorder, every method returns the same event, which does nothing.
+ * @author Timur Saglam
+ */
+public final class ExtractionEvents {
+    private static final Logger logger = LogManager.getLogger(ExtractionEvents.class.getName());
+    static final ExtractionEvent NO_EVENT = (firstCount, secondCount) -> {
+        // Flight Recorder is not available or the event is not enabled.
+    };
+    private static final boolean AVAILABLE = isFlightRecorderAvailable();
+
+    /**
+     * Private constructor for static class.
+     */
+    private ExtractionEvents() {
+        // Private constructor.
+    }
+
+    /**
+     * Begins the event of the completion of an EClass. The counts of the event are the structural features and the
+     * operations of the EClass.
+     * @param className is the name of the EClass.
+     * @return the running {@link ExtractionEvent}.
+     */
+    public static ExtractionEvent beginEClass(String className) {
+        return AVAILABLE ? FlightRecorderEvents.beginEClass(className) : NO_EVENT;
+    }
+
+    /**
+     * Begins the event of the extraction of a package fragment. The counts of the event are the compilation units and
+     * the types of the package fragment.
+     * @param packageName is the name of the package fragment.
+     * @return the running {@link ExtractionEvent}.
+     */
+    public static ExtractionEvent beginPackage(String packageName) {
+        return AVAILABLE ? FlightRecorderEvents.beginPackage(packageName) : NO_EVENT;
+    }
+
+    /**
+     * Begins the event of the saving of a metamodel. The first count of the event is the size of the saved file in
+     * bytes, the second count is ignored.
+     * @param projectName is the name of the project of the metamodel.
+     * @return the running {@link ExtractionEvent}.
+     */
+    public static ExtractionEvent beginSave(String projectName) {
+        return AVAILABLE ? FlightRecorderEvents.beginSave(projectName) : NO_EVENT;
+    }
+
+    /**
+     * Begins the event of the extraction of a type. The counts of the event are the fields and the methods of the type.
+     * @param typeName is the full name of the type.
+     * @return the running {@link ExtractionEvent}.
+     */
+    public static ExtractionEvent beginType(String typeName) {
+        return AVAILABLE ? FlightRecorderEvents.beginType(typeName) : NO_EVENT;
+    }
+
+    /**
+     * Checks whether the events are emitted as Flight Recorder events.
+     * @return true if the Java runtime provides the Flight Recorder.
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * Checks whether an event is recorded, which means its counts are worth computing.
+     * @param event is the {@link ExtractionEvent} returned by one of the begin methods.
+     * @return true if the event is a Flight Recorder event that a recording enabled.
+     */
+    public static boolean isRecorded(ExtractionEvent event) {
+        return event != NO_EVENT;
+    }
+
+    /**
+     * Checks whether the Flight Recorder API can be loaded, without loading any event class.
+     */
+    private static boolean isFlightRecorderAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, ExtractionEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError error) {
+            logger.info("Java Flight Recorder is not available, extraction events are disabled.");
+            return false;
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package eme.metrics;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Collects the metrics of a single extraction: wall and CPU time of the extraction phases and counters for the work
+ * that was done. The counters are thread-safe. A phase has to begin and end on the same thread, because its CPU time
+ * is the CPU time of that thread. Phases that run more than once accumulate their times. The metrics can be exported as
+ * JSON, which allows to track performance regressions across builds.
+ * @author Timur Saglam
+ */
+public class ExtractionMetrics {
+    private static final long NANOS_PER_MILLI = 1000000L;
+    private final AtomicLongArray counters;
+    private final AtomicLongArray cpuTimes; // nanoseconds
+    private volatile long heapHighWaterMark; // bytes
+    private final String projectName;
+    private final long[] startCpuTimes;
+    private final long[] startWallTimes;
+    private final ThreadMXBean threads;
+    private final AtomicLongArray wallTimes; // nanoseconds
+
+    /**
+     * Basic constructor, creates empty metrics.
+     * @param projectName is the name of the extracted project.
+     */
+    public ExtractionMetrics(String projectName) {
+        this.projectName = projectName;
+        threads = ManagementFactory.getThreadMXBean();
+        counters = new AtomicLongArray(Counter.values().length);
+        cpuTimes = new AtomicLongArray(Phase.values().length);
+        wallTimes = new AtomicLongArray(Phase.values().length);
+        startCpuTimes = new long[Phase.values().length];
+        startWallTimes = new long[Phase.values().length];
+    }
+
+    /**
+     * Adds a value to a counter.
+     * @param counter is the {@link Counter}.
+     * @param value is the value to add.
+     */
+    public void add(Counter counter, long value) {
+        counters.addAndGet(counter.ordinal(), value);
+    }
+
+    /**
+     * Starts measuring a phase on the current thread.
+     * @param phase is the {@link Phase}.
+     */
+    public void begin(Phase phase) {
+        startWallTimes[phase.ordinal()] = System.nanoTime();
+        startCpuTimes[phase.ordinal()] = getCpuTime();
+    }
+
+    /**
+     * Increments a counter by one.
+     * @param counter is the {@link Counter}.
+     */
+    public void count(Counter counter) {
+        counters.incrementAndGet(counter.ordinal());
+    }
+
+    /**
+     * Counts either a hit or a miss of a cache.
+     * @param hit specifies whether the lookup was a hit.
+     * @param hits is the {@link Counter} for the hits.
+     * @param misses is the {@link Counter} for the misses.
+     * @return the value of the parameter hit.
+     */
+    public boolean countLookup(boolean hit, Counter hits, Counter misses) {
+        count(hit ? hits : misses);
+        return hit;
+    }
+
+    /**
+     * Stops measuring a phase, which has to be started on the current thread, and adds the elapsed time.
+     * @param phase is the {@link Phase}.
+     */
+    public void end(Phase phase) {
+        wallTimes.addAndGet(phase.ordinal(), System.nanoTime() - startWallTimes[phase.ordinal()]);
+        cpuTimes.addAndGet(phase.ordinal(), getCpuTime() - startCpuTimes[phase.ordinal()]);
+    }
+
+    /**
+     * Returns the value of a counter.
+     * @param counter is the {@link Counter}.
+     * @return the value.
+     */
+    public long get(Counter counter) {
+        return counters.get(counter.ordinal());
+    }
+
+    /**
+     * Returns the CPU time of a phase.
+     * @param phase is the {@link Phase}.
+     * @return the CPU time in milliseconds, which is zero if the JVM does not support measuring it.
+     */
+    public long getCpuTime(Phase phase) {
+        return cpuTimes.get(phase.ordinal()) / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Accessor for the heap high-water mark of the extraction, which is only measured in the bounded-memory mode. The
+     * used heap is sampled after every batch and after the type extraction, the samples include memory used by other
+     * threads and can miss short peaks between them.
+     * @return the heap high-water mark in bytes, or zero if it was not measured.
+     */
+    public long getHeapHighWaterMark() {
+        return heapHighWaterMark;
+    }
+
+    /**
+     * Returns the hit rate of a cache.
+     * @param hits is the {@link Counter} for the hits.
+     * @param misses is the {@link Counter} for the misses.
+     * @return the rate between 0 and 1, or -1 if there were no lookups.
+     */
+    public double getHitRate(Counter hits, Counter misses) {
+        long lookups = get(hits) + get(misses);
+        return lookups == 0 ? -1 : (double) get(hits) / lookups;
+    }
+
+    /**
+     * Accessor for the name of the extracted project.
+     * @return the project name.
+     */
+    public String getProjectName() {
+        return projectName;
+    }
+
+    /**
+     * Returns the wall time of a phase.
+     * @param phase is the {@link Phase}.
+     * @return the wall time in milliseconds.
+     */
+    public long getWallTime(Phase phase) {
+        return wallTimes.get(phase.ordinal()) / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Mutator for the heap high-water mark of the extraction.
+     * @param heapHighWaterMark is the heap high-water mark in bytes.
+     */
+    public void setHeapHighWaterMark(long heapHighWaterMark) {
+        this.heapHighWaterMark = heapHighWaterMark;
+    }
+
+    /**
+     * Creates a JSON representation of the metrics.
+     * @return the JSON string.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"project\": \"").append(escape(projectName)).append("\",\n");
+        json.append("  \"phases\": {");
+        for (Phase phase : Phase.values()) {
+            json.append(phase.ordinal() == 0 ? "\n" : ",\n").append("    \"").append(phase.getKey()).append("\": { \"wallMillis\": ");
+            json.append(getWallTime(phase)).append(", \"cpuMillis\": ").append(getCpuTime(phase)).append(" }");
+        }
+        json.append("\n  },\n  \"counters\": {");
+        for (Counter counter : Counter.values()) {
+            json.append(counter.ordinal() == 0 ? "\n" : ",\n").append("    \"").append(counter.getKey()).append("\": ");
+            json.append(get(counter));
+        }
+        json.append("\n  },\n  \"hitRates\": {\n");
+        appendRate(json, "jreTypeIndex", Counter.JRE_INDEX_HITS, Counter.JRE_INDEX_MISSES).append(",\n");
+        appendRate(json, "dependencyModels", Counter.DEPENDENCY_HITS, Counter.DEPENDENCY_MISSES).append(",\n");
+        appendRate(json, "dataTypeCache", Counter.DATA_TYPE_CACHE_HITS, Counter.DATA_TYPE_CACHE_MISSES);
+        json.append("\n  },\n  \"heapHighWaterMark\": ").append(heapHighWaterMark).append("\n}\n");
+        return json.toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("Metrics of " + projectName + ":");
+        for (Phase phase : Phase.values()) {
+            builder.append(' ').append(phase.getKey()).append('=').append(getWallTime(phase)).append("ms");
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Writes the JSON representation of the metrics to a file.
+     * @param file is the file, which is overwritten if it exists.
+     * @throws IOException if the file can not be written.
+     */
+    public void writeJson(File file) throws IOException {
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            writer.write(toJson());
+        }
+    }
+
+    /**
+     * Appends a hit rate to a JSON string. Rates without lookups are null.
+     */
+    private StringBuilder appendRate(StringBuilder json, String key, Counter hits, Counter misses) {
+        double rate = getHitRate(hits, misses);
+        return json.append("    \"").append(key).append("\": ").append(rate < 0 ? "null" : String.format(Locale.ROOT, "%.4f", rate));
+    }
+
+    /**
+     * Escapes a string for JSON.
+     */
+    private String escape(String text) {
+        StringBuilder builder = new StringBuilder();
+        for (char character : text.toCharArray()) {
+            if (character == '"' || character == '\\') {
+                builder.append('\\').append(character);
+            } else if (character < ' ') {
+                builder.append(String.format("\\u%04x", (int) character));
+            } else {
+                builder.append(character);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Returns the CPU time of the current thread in nanoseconds, or zero if the JVM does not support it.
+     */
+    private long getCpuTime() {
+        return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : 0;
+    }
+
+    /**
+     * Converts a constant name like "FIND_TYPE_CALLS" into a JSON key like "findTypeCalls".
+     */
+    private static String toKey(String constantName) {
+        StringBuilder key = new StringBuilder();
+        for (String word : constantName.toLowerCase().split("_")) {
+            key.append(key.length() == 0 ? word : Character.toUpperCase(word.charAt(0)) + word.substring(1));
+        }
+        return key.toString();
+    }
+
+    /**
+     * The measured phases of an extraction. The phases do not overlap.
+     */
+    public enum Phase {
+        /**
+         * Extraction of the packages and types of the project.
+         */
+        EXTRACTION,
+
+        /**
+         * Resolution of the external types.
+         */
+        EXTERNAL_TYPES,
+
+        /**
+         * Sorting of the intermediate model.
+         */
+        SORT,
+
+        /**
+         * Generation of the Ecore packages and classifiers.
+         */
+        GENERATION,
+
+        /**
+         * Completion of the classifiers with members, type parameters and super types.
+         */
+        COMPLETION,
+
+        /**
+         * Generation of the Java code of the classes, if it is enabled.
+         */
+        CODE,
+
+        /**
+         * Saving of the Ecore file.
+         */
+        SAVE;
+
+        /**
+         * Returns the JSON key of the phase.
+         * @return the key, e.g. "externalTypes".
+         */
+        public String getKey() {
+            return toKey(name());
+        }
+    }
+
+    /**
+     * The counters of an extraction.
+     */
+    public enum Counter {
+        /**
+         * Extracted compilation units.
+         */
+        COMPILATION_UNITS,
+
+        /**
+         * Extracted types of the project.
+         */
+        TYPES,
+
+        /**
+         * Extracted fields and methods of the types of the project.
+         */
+        MEMBERS,
+
+        /**
+         * Types in the intermediate model that are external types.
+         */
+        EXTERNAL_TYPES,
+
+        /**
+         * Type hierarchies that were built with the JDT.
+         */
+        HIERARCHY_CALLS,
+
+        /**
+         * Type lookups with <code>IJavaProject.findType()</code>.
+         */
+        FIND_TYPE_CALLS,
+
+        /**
+         * Types that were found in the JRE type index.
+         */
+        JRE_INDEX_HITS,
+
+        /**
+         * Types that were not found in the JRE type index.
+         */
+        JRE_INDEX_MISSES,
+
+        /**
+         * External types that were reused from the models of required projects.
+         */
+        DEPENDENCY_HITS,
+
+        /**
+         * External types that were not found in the models of required projects.
+         */
+        DEPENDENCY_MISSES,
+
+        /**
+         * Data types that were already generated.
+         */
+        DATA_TYPE_CACHE_HITS,
+
+        /**
+         * Data types that had to be generated.
+         */
+        DATA_TYPE_CACHE_MISSES,
+
+        /**
+         * Size of the saved Ecore file in bytes.
+         */
+        BYTES_WRITTEN;
+
+        /**
+         * Returns the JSON key of the counter.
+         * @return the key, e.g. "findTypeCalls".
+         */
+        public String getKey() {
+            return toKey(name());
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package eme.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The Java Flight Recorder events of the extraction pipeline. This class must only be used through
+ * {@link ExtractionEvents}, which checks whether the Flight Recorder is available before loading it. An event is only
+ * created if a recording enables its type, otherwise the shared no-op event of {@link ExtractionEvents} is returned.
+ * @author Timur Saglam
+ */
+final class FlightRecorderEvents {
+    private static final String CATEGORY = "Ecore Metamodel Extraction";
+    private static final EventType ECLASS_TYPE = EventType.getEventType(EClassEvent.class);
+    private static final EventType PACKAGE_TYPE = EventType.getEventType(PackageEvent.class);
+    private static final EventType SAVE_TYPE = EventType.getEventType(SaveEvent.class);
+    private static final EventType TYPE_TYPE = EventType.getEventType(TypeEvent.class);
+
+    /**
+     * Private constructor for static class.
+     */
+    private FlightRecorderEvents() {
+        // Private constructor.
+    }
+
+    /**
+     * Begins an {@link EClassEvent}.
+     */
+    static ExtractionEvent beginEClass(String className) {
+        if (!ECLASS_TYPE.isEnabled()) {
+            return ExtractionEvents.NO_EVENT;
+        }
+        EClassEvent event = new EClassEvent();
+        event.className = className;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Begins a {@link PackageEvent}.
+     */
+    static ExtractionEvent beginPackage(String packageName) {
+        if (!PACKAGE_TYPE.isEnabled()) {
+            return ExtractionEvents.NO_EVENT;
+        }
+        PackageEvent event = new PackageEvent();
+        event.packageName = packageName;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Begins a {@link SaveEvent}.
+     */
+    static ExtractionEvent beginSave(String projectName) {
+        if (!SAVE_TYPE.isEnabled()) {
+            return ExtractionEvents.NO_EVENT;
+        }
+        SaveEvent event = new SaveEvent();
+        event.projectName = projectName;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Begins a {@link TypeEvent}.
+     */
+    static ExtractionEvent beginType(String typeName) {
+        if (!TYPE_TYPE.isEnabled()) {
+            return ExtractionEvents.NO_EVENT;
+        }
+        TypeEvent event = new TypeEvent();
+        event.typeName = typeName;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Completion of a generated EClass with its members, type parameters and super types.
+     */
+    @Name("eme.EClassCompletion")
+    @Label("EClass Completion")
+    @Category(CATEGORY)
+    @Description("Completion of a generated EClass")
+    static class EClassEvent extends Event implements ExtractionEvent {
+        @Label("EClass")
+        String className;
+        @Label("Structural Features")
+        long structuralFeatures;
+        @Label("Operations")
+        long operations;
+
+        @Override
+        public void commit(long firstCount, long secondCount) {
+            if (shouldCommit()) {
+                structuralFeatures = firstCount;
+                operations = secondCount;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Extraction of a package fragment of the project.
+     */
+    @Name("eme.PackageExtraction")
+    @Label("Package Extraction")
+    @Category(CATEGORY)
+    @Description("Extraction of the compilation units of a package fragment")
+    static class PackageEvent extends Event implements ExtractionEvent {
+        @Label("Package")
+        String packageName;
+        @Label("Compilation Units")
+        long compilationUnits;
+        @Label("Types")
+        long types;
+
+        @Override
+        public void commit(long firstCount, long secondCount) {
+            if (shouldCommit()) {
+                compilationUnits = firstCount;
+                types = secondCount;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Saving of a generated metamodel.
+     */
+    @Name("eme.MetamodelSaving")
+    @Label("Metamodel Saving")
+    @Category(CATEGORY)
+    @Description("Saving of a generated metamodel as Ecore file")
+    static class SaveEvent extends Event implements ExtractionEvent {
+        @Label("Project")
+        String projectName;
+        @Label("File Size")
+        @DataAmount
+        long bytes;
+
+        @Override
+        public void commit(long firstCount, long secondCount) {
+            if (shouldCommit()) {
+                bytes = firstCount;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Extraction of a single type.
+     */
+    @Name("eme.TypeExtraction")
+    @Label("Type Extraction")
+    @Category(CATEGORY)
+    @Description("Extraction of a class, interface or enumeration")
+    static class TypeEvent extends Event implements ExtractionEvent {
+        @Label("Type")
+        String typeName;
+        @Label("Fields")
+        long fields;
+        @Label("Methods")
+        long methods;
+
+        @Override
+        public void commit(long firstCount, long secondCount) {
+            if (shouldCommit()) {
+                fields = firstCount;
+                methods = secondCount;
+                commit();
+            }
+        }
+    }
+}
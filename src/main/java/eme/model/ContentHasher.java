@@ -0,0 +1,176 @@
+package eme.model;
+
+import java.util.List;
+
+import eme.model.datatypes.ExtractedDataType;
+import eme.model.datatypes.ExtractedField;
+import eme.model.datatypes.ExtractedParameter;
+import eme.model.datatypes.ExtractedTypeParameter;
+
+/**
+ * Computes stable 64-bit content hashes of the elements of an {@link IntermediateModel} with FNV-1a. Unlike the hash
+ * codes of the elements, which only cover their names, the content hashes cover their structure and are the same in
+ * every run for the same structure. The hashes of children are combined independently of their order.
+ * @author Timur Saglam
+ */
+final class ContentHasher {
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+    private long childHashes;
+    private long hash;
+
+    /**
+     * Basic constructor, starts with an empty hash.
+     */
+    ContentHasher() {
+        hash = OFFSET_BASIS;
+    }
+
+    /**
+     * Computes the content hash of an {@link ExtractedType}, which covers its kind, name, selection, modifiers, super
+     * types, type parameters, fields, methods and enumeral constants.
+     * @param type is the {@link ExtractedType}.
+     * @return the content hash.
+     */
+    static long hash(ExtractedType type) {
+        ContentHasher hasher = new ContentHasher();
+        hasher.add(type.getClass().getSimpleName()).add(type.getFullName()).add(type.isSelected()).add(type.getOuterType());
+        if (type instanceof ExtractedClass) {
+            ExtractedClass extractedClass = (ExtractedClass) type;
+            hasher.add(extractedClass.isAbstract()).add(extractedClass.isThrowable()).addDataType(extractedClass.getSuperClass());
+        }
+        hasher.addTypeParameters(type.getTypeParameters()).addDataTypes(type.getSuperInterfaces());
+        for (ExtractedField field : type.getFields()) {
+            hasher.add(field.getIdentifier()).add(field.getModifier().name()).add(field.isStatic()).add(field.isFinal()).addDataType(field);
+        }
+        for (ExtractedMethod method : type.getMethods()) {
+            hasher.add(method.getName()).add(method.isSelected()).add(method.getModifier().name()).add(method.getMethodType().name());
+            hasher.add(method.isStatic()).add(method.isAbstract()).addTypeParameters(method.getTypeParameters());
+            hasher.addDataType(method.getReturnType());
+            for (ExtractedParameter parameter : method.getParameters()) {
+                hasher.add(parameter.getIdentifier()).addDataType(parameter);
+            }
+            hasher.addDataTypes(method.getThrowsDeclarations());
+        }
+        if (type instanceof ExtractedEnum) {
+            for (ExtractedEnumConstant constant : ((ExtractedEnum) type).getConstants()) {
+                hasher.add(constant.getName());
+            }
+        }
+        return hasher.getHash();
+    }
+
+    /**
+     * Adds a boolean value to the hash.
+     * @param value is the value.
+     * @return the hasher itself.
+     */
+    ContentHasher add(boolean value) {
+        return addByte(value ? 1 : 0);
+    }
+
+    /**
+     * Adds a string to the hash. Null strings and empty strings result in different hashes.
+     * @param value is the string, may be null.
+     * @return the hasher itself.
+     */
+    ContentHasher add(String value) {
+        if (value == null) {
+            return addByte(0xFF);
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char character = value.charAt(i);
+            addByte(character >>> 8);
+            addByte(character);
+        }
+        return addByte(0); // terminates the string
+    }
+
+    /**
+     * Adds the hash of a child element. The hashes of the children are combined independently of their order and are
+     * added to the hash with the first call of {@link #getHash()}.
+     * @param childHash is the hash of the child element.
+     * @return the hasher itself.
+     */
+    ContentHasher addChild(long childHash) {
+        childHashes += mix(childHash);
+        return this;
+    }
+
+    /**
+     * Returns the hash, including the hashes of the children.
+     * @return the hash.
+     */
+    long getHash() {
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            addByte((int) (childHashes >>> shift));
+        }
+        childHashes = 0;
+        return hash;
+    }
+
+    /**
+     * Adds one byte to the FNV-1a hash.
+     */
+    private ContentHasher addByte(int value) {
+        hash ^= value & 0xFF;
+        hash *= PRIME;
+        return this;
+    }
+
+    /**
+     * Adds a data type with its wild card status and its generic arguments to the hash.
+     */
+    private ContentHasher addDataType(ExtractedDataType dataType) {
+        if (dataType == null) {
+            return add((String) null);
+        }
+        add(dataType.getWildcardStatus().name()).add(dataType.getFullType());
+        addInt(dataType.getGenericArguments().size());
+        for (ExtractedDataType argument : dataType.getGenericArguments()) {
+            addDataType(argument);
+        }
+        return this;
+    }
+
+    /**
+     * Adds a list of data types to the hash.
+     */
+    private ContentHasher addDataTypes(List<? extends ExtractedDataType> dataTypes) {
+        addInt(dataTypes.size());
+        for (ExtractedDataType dataType : dataTypes) {
+            addDataType(dataType);
+        }
+        return this;
+    }
+
+    /**
+     * Adds the four bytes of an integer to the hash.
+     */
+    private ContentHasher addInt(int value) {
+        for (int shift = 0; shift < Integer.SIZE; shift += Byte.SIZE) {
+            addByte(value >>> shift);
+        }
+        return this;
+    }
+
+    /**
+     * Adds a list of type parameters and their bounds to the hash.
+     */
+    private ContentHasher addTypeParameters(List<ExtractedTypeParameter> typeParameters) {
+        addInt(typeParameters.size());
+        for (ExtractedTypeParameter typeParameter : typeParameters) {
+            add(typeParameter.getIdentifier()).addDataTypes(typeParameter.getBounds());
+        }
+        return this;
+    }
+
+    /**
+     * Spreads the bits of a child hash, which keeps the order-independent sum of child hashes from cancelling out.
+     */
+    private static long mix(long value) {
+        long mixed = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        mixed = (mixed ^ (mixed >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return mixed ^ (mixed >>> 33);
+    }
+}
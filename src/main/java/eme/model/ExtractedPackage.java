@@ -10,6 +10,7 @@ import java.util.List;
  */
 public class ExtractedPackage extends ExtractedElement {
     private final List<ExtractedClass> classes;
+    private long contentHash;
     private final List<ExtractedEnum> enumerations;
     private final List<ExtractedInterface> interfaces;
     private final List<ExtractedPackage> subpackages;
@@ -58,6 +59,17 @@ public class ExtractedPackage extends ExtractedElement {
         return classes;
     }
 
+    /**
+     * Accessor for the content hash of the package, which is a Merkle hash of its name, its selection and the content
+     * hashes of its types and subpackages. Two packages with the same hash have the same content, which means an
+     * unchanged subtree can be skipped when comparing models. The hash is independent of the order of the children.
+     * @return the content hash, or 0 if it was not computed yet.
+     * @see IntermediateModel#computeContentHashes()
+     */
+    public long getContentHash() {
+        return contentHash;
+    }
+
     /**
      * accessor for the {@link ExtractedEnum}s.
      * @return the enumerations.
@@ -93,6 +105,23 @@ public class ExtractedPackage extends ExtractedElement {
         return types;
     }
 
+    /**
+     * Computes the content hashes of all types and subpackages of the package and then the content hash of the package
+     * itself, and stores them.
+     * @return the content hash of the package.
+     */
+    long computeContentHash() {
+        ContentHasher hasher = new ContentHasher().add(getFullName()).add(selected);
+        for (ExtractedType type : getTypes()) {
+            hasher.addChild(type.computeContentHash());
+        }
+        for (ExtractedPackage subpackage : subpackages) {
+            hasher.addChild(subpackage.computeContentHash());
+        }
+        contentHash = hasher.getHash();
+        return contentHash;
+    }
+
     /**
      * Checks whether package is empty.
      * @return true if the package is empty.
@@ -12,6 +12,7 @@ import eme.model.datatypes.ExtractedTypeParameter;
  * @author Timur Saglam
  */
 public abstract class ExtractedType extends ExtractedElement {
+    private long contentHash;
     protected final List<ExtractedField> fields;
     protected final List<ExtractedMethod> methods;
     protected String outerType;
@@ -66,6 +67,17 @@ public abstract class ExtractedType extends ExtractedElement {
         return false;
     }
 
+    /**
+     * Accessor for the content hash of the type, which covers its name, selection, modifiers, super types, type
+     * parameters, fields and methods. The hash is stable between runs. It is computed with the content hashes of the
+     * {@link IntermediateModel}, but only for the types of the model, not for its external types.
+     * @return the content hash, or 0 if it was not computed yet or if the type is an external type.
+     * @see IntermediateModel#computeContentHashes()
+     */
+    public long getContentHash() {
+        return contentHash;
+    }
+
     /**
      * accessor for the list of {@link ExtractedField}s.
      * @return the list of attributes.
@@ -133,6 +145,15 @@ public abstract class ExtractedType extends ExtractedElement {
         this.outerType = outerType;
     }
 
+    /**
+     * Computes the content hash of the type and stores it.
+     * @return the content hash.
+     */
+    long computeContentHash() {
+        contentHash = ContentHasher.hash(this);
+        return contentHash;
+    }
+
     /**
      * Sets the generic type parameters.
      * @param typeParameters is the list of {@link ExtractedTypeParameter}s.
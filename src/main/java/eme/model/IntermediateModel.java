@@ -1,6 +1,8 @@
 package eme.model;
 
+import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.log4j.LogManager;
@@ -9,14 +11,21 @@ import org.apache.log4j.Logger;
 /**
  * Base class for an intermediate model. The intermediate model is the temporary
  * model between the implicit model of the code files and the Ecore metamodel.
+ * Packages and types are indexed by their full names, which makes lookups
+ * constant-time. A completely built model can be read by multiple threads.
  * @author Timur Saglam
  */
 public class IntermediateModel {
     private static final Logger logger = LogManager.getLogger(IntermediateModel.class.getName());
+    private boolean contentHashes;
+    private long externalContentHash;
+    private final Map<String, ExtractedType> externalTypeIndex;
     private final Set<ExtractedType> externalTypes;
+    private final Map<String, ExtractedPackage> packageIndex;
     private final Set<ExtractedPackage> packages;
     private final String projectName;
     private ExtractedPackage rootPackage;
+    private final Map<String, ExtractedType> typeIndex;
     private final Set<ExtractedType> types;
 
     /**
@@ -27,6 +36,9 @@ public class IntermediateModel {
         packages = new LinkedHashSet<ExtractedPackage>();
         types = new LinkedHashSet<ExtractedType>();
         externalTypes = new LinkedHashSet<ExtractedType>();
+        packageIndex = new HashMap<String, ExtractedPackage>();
+        typeIndex = new HashMap<String, ExtractedType>();
+        externalTypeIndex = new HashMap<String, ExtractedType>();
         this.projectName = projectName;
     }
 
@@ -37,6 +49,7 @@ public class IntermediateModel {
      */
     public void add(ExtractedPackage newPackage) {
         if (packages.add(newPackage)) {
+            packageIndex.put(newPackage.getFullName(), newPackage);
             if (rootPackage == null) { // if it is the first package
                 rootPackage = newPackage; // add as root
                 newPackage.setAsRoot(); // mark as root
@@ -60,7 +73,9 @@ public class IntermediateModel {
      * @param type is the new external type to add.
      */
     public void addExternal(ExtractedType type) {
-        externalTypes.add(type);
+        if (externalTypes.add(type)) {
+            externalTypeIndex.put(type.getFullName(), type);
+        }
     }
 
     /**
@@ -73,10 +88,30 @@ public class IntermediateModel {
         if (!type.getParentName().contains(parent.getFullName())) {
             throw new IllegalArgumentException("Invalid parent declaration in " + type + " to " + parent);
         } else if (types.add(type)) { // add class to list of classes.
+            typeIndex.put(type.getFullName(), type);
             parent.add(type);
         }
     }
 
+    /**
+     * Computes the content hashes of all packages, types and external types in
+     * a single pass over the model. The hashes have to be computed again after
+     * the model was changed, e.g. after its selection was changed. The external
+     * types only contribute to the combined external hash of the model and keep
+     * no hash of their own.
+     * @see ExtractedType#getContentHash()
+     * @see ExtractedPackage#getContentHash()
+     */
+    public void computeContentHashes() {
+        rootPackage.computeContentHash();
+        ContentHasher hasher = new ContentHasher();
+        for (ExtractedType type : externalTypes) {
+            hasher.addChild(ContentHasher.hash(type)); // kept in the model, the type is not changed
+        }
+        externalContentHash = hasher.getHash();
+        contentHashes = true;
+    }
+
     /**
      * Checks whether the model contains an {@link ExtractedType} whose full name
      * matches a given full name.
@@ -97,6 +132,16 @@ public class IntermediateModel {
         return getExternalType(fullName) != null;
     }
 
+    /**
+     * Accessor for the combined content hash of all external types, which is
+     * independent of their order.
+     * @return the content hash, or 0 if it was not computed yet.
+     * @see #computeContentHashes()
+     */
+    public long getExternalContentHash() {
+        return externalContentHash;
+    }
+
     /**
      * Returns the external {@link ExtractedType} of the intermediate model whose
      * full name matches the given full name.
@@ -105,7 +150,7 @@ public class IntermediateModel {
      * the name is not found.
      */
     public ExtractedType getExternalType(String fullName) {
-        return getTypeFrom(fullName, externalTypes);
+        return externalTypeIndex.get(fullName);
     }
 
     /**
@@ -126,10 +171,9 @@ public class IntermediateModel {
      * in the model. It is explicitly used to find an existing package.
      */
     public ExtractedPackage getPackage(String fullName) {
-        for (ExtractedPackage aPackage : packages) { // for all packages
-            if (aPackage.getFullName().equals(fullName)) { // if parent
-                return aPackage; // can only have on parent
-            }
+        ExtractedPackage extractedPackage = packageIndex.get(fullName);
+        if (extractedPackage != null) {
+            return extractedPackage;
         }
         throw new IllegalArgumentException("Could not find package " + fullName);
     }
@@ -158,7 +202,23 @@ public class IntermediateModel {
      * is not found.
      */
     public ExtractedType getType(String fullName) {
-        return getTypeFrom(fullName, types);
+        return typeIndex.get(fullName);
+    }
+
+    /**
+     * Returns all the {@link ExtractedType}s of the intermediate model.
+     * @return the set of {@link ExtractedType}s.
+     */
+    public Set<ExtractedType> getTypes() {
+        return types;
+    }
+
+    /**
+     * Checks whether the content hashes of the model were computed.
+     * @return true if they were computed.
+     */
+    public boolean hasContentHashes() {
+        return contentHashes;
     }
 
     /**
@@ -195,21 +255,4 @@ public class IntermediateModel {
         return "IntermediateModel of " + projectName + ": [Packages=" + packages.size() + ", Types=" + types.size() + ", ExternalTypes="
                 + externalTypes.size() + "]";
     }
-
-    /**
-     * Finds {@link ExtractedType} from set of {@link ExtractedType}s by its full
-     * name.
-     * @param fullName is full name.
-     * @param typeSet is the set of {@link ExtractedType}s.
-     * @return the {@link ExtractedType} with the matching name or null if the name
-     * is not found.
-     */
-    private ExtractedType getTypeFrom(String fullName, Set<ExtractedType> typeSet) {
-        for (ExtractedType type : typeSet) { // for all packages
-            if (type.getFullName().equals(fullName)) { // if parent
-                return type; // can only have on parent
-            }
-        }
-        return null;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,235 @@
+package eme.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import eme.model.datatypes.ExtractedDataType;
+import eme.model.datatypes.ExtractedTypeParameter;
+
+/**
+ * The difference between two versions of an {@link IntermediateModel}, e.g. before and after an edit of the project.
+ * It lists the added, removed and changed {@link ExtractedType}s and the unchanged types that reference an added or
+ * removed type, because their references resolve to different elements. A type whose kind changed, e.g. from class to
+ * interface, is listed as removed and as added. Types are compared by their content hashes, and packages with equal
+ * Merkle hashes are skipped with all their subpackages, which means the comparison only visits the changed subtrees.
+ * Only the search for dependent types visits all types, if types were added or removed. Changes of the packages and
+ * the external types are only detected, not listed. The content hashes are computed if a model has none.
+ * @author Timur Saglam
+ */
+public class IntermediateModelDiff {
+    private final List<ExtractedType> addedTypes;
+    private final List<ExtractedType> changedTypes;
+    private final List<ExtractedType> dependentTypes;
+    private final boolean externalTypesChanged;
+    private boolean packagesChanged;
+    private final List<ExtractedType> removedTypes;
+
+    /**
+     * Basic constructor, computes the difference.
+     * @param oldModel is the old version of the {@link IntermediateModel}.
+     * @param newModel is the new version of the {@link IntermediateModel}.
+     */
+    public IntermediateModelDiff(IntermediateModel oldModel, IntermediateModel newModel) {
+        addedTypes = new ArrayList<ExtractedType>();
+        changedTypes = new ArrayList<ExtractedType>();
+        removedTypes = new ArrayList<ExtractedType>();
+        for (IntermediateModel model : new IntermediateModel[] { oldModel, newModel }) {
+            if (!model.hasContentHashes()) {
+                model.computeContentHashes();
+            }
+        }
+        externalTypesChanged = oldModel.getExternalContentHash() != newModel.getExternalContentHash();
+        comparePackages(oldModel.getRoot(), newModel.getRoot());
+        dependentTypes = findDependentTypes(newModel);
+    }
+
+    /**
+     * Accessor for the added {@link ExtractedType}s of the new model.
+     * @return the list of added types.
+     */
+    public List<ExtractedType> getAddedTypes() {
+        return addedTypes;
+    }
+
+    /**
+     * Accessor for the changed {@link ExtractedType}s, as they are in the new model.
+     * @return the list of changed types.
+     */
+    public List<ExtractedType> getChangedTypes() {
+        return changedTypes;
+    }
+
+    /**
+     * Accessor for the unchanged {@link ExtractedType}s of the new model that reference an added or removed type.
+     * @return the list of dependent types.
+     */
+    public List<ExtractedType> getDependentTypes() {
+        return dependentTypes;
+    }
+
+    /**
+     * Accessor for the removed {@link ExtractedType}s of the old model.
+     * @return the list of removed types.
+     */
+    public List<ExtractedType> getRemovedTypes() {
+        return removedTypes;
+    }
+
+    /**
+     * Checks whether the external types of the models differ.
+     * @return true if an external type was added, removed or changed.
+     */
+    public boolean hasExternalTypeChanges() {
+        return externalTypesChanged;
+    }
+
+    /**
+     * Checks whether the packages of the models differ, which includes changes of their selection and whether they
+     * are empty.
+     * @return true if a package was added, removed or changed.
+     */
+    public boolean hasPackageChanges() {
+        return packagesChanged;
+    }
+
+    /**
+     * Checks whether the models are equal, which means there are no differences.
+     * @return true if there are no differences.
+     */
+    public boolean isEmpty() {
+        return !packagesChanged && !externalTypesChanged && addedTypes.isEmpty() && changedTypes.isEmpty()
+                && removedTypes.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(added=" + addedTypes.size() + ", removed=" + removedTypes.size() + ", changed="
+                + changedTypes.size() + ", dependent=" + dependentTypes.size() + ", packagesChanged=" + packagesChanged
+                + ", externalTypesChanged=" + externalTypesChanged + ")";
+    }
+
+    /**
+     * Collects the names of the types a data type and its generic arguments refer to.
+     */
+    private void collectReferences(ExtractedDataType dataType, Set<String> references) {
+        if (dataType != null) {
+            references.add(dataType.getFullArrayType());
+            for (ExtractedDataType argument : dataType.getGenericArguments()) {
+                collectReferences(argument, references);
+            }
+        }
+    }
+
+    /**
+     * Collects the names of the types a type refers to with its super types, type parameters and members.
+     */
+    private Set<String> collectReferences(ExtractedType type) {
+        Set<String> references = new HashSet<String>();
+        if (type instanceof ExtractedClass) {
+            collectReferences(((ExtractedClass) type).getSuperClass(), references);
+        }
+        type.getSuperInterfaces().forEach(superInterface -> collectReferences(superInterface, references));
+        collectReferences(type.getTypeParameters(), references);
+        type.getFields().forEach(field -> collectReferences(field, references));
+        for (ExtractedMethod method : type.getMethods()) {
+            collectReferences(method.getReturnType(), references);
+            method.getParameters().forEach(parameter -> collectReferences(parameter, references));
+            method.getThrowsDeclarations().forEach(exception -> collectReferences(exception, references));
+            collectReferences(method.getTypeParameters(), references);
+        }
+        return references;
+    }
+
+    /**
+     * Collects the names of the types the bounds of type parameters refer to.
+     */
+    private void collectReferences(List<ExtractedTypeParameter> typeParameters, Set<String> references) {
+        for (ExtractedTypeParameter typeParameter : typeParameters) {
+            typeParameter.getBounds().forEach(bound -> collectReferences(bound, references));
+        }
+    }
+
+    /**
+     * Lists the types of a package and of its subpackages as added or removed.
+     */
+    private void collectTypes(ExtractedPackage extractedPackage, List<ExtractedType> list) {
+        list.addAll(extractedPackage.getTypes());
+        for (ExtractedPackage subpackage : extractedPackage.getSubpackages()) {
+            collectTypes(subpackage, list);
+        }
+    }
+
+    /**
+     * Compares two versions of a package. Skips the package and its subpackages if their content hashes are equal,
+     * otherwise compares their types and subpackages.
+     */
+    private void comparePackages(ExtractedPackage oldPackage, ExtractedPackage newPackage) {
+        if (oldPackage.getContentHash() == newPackage.getContentHash()) {
+            return; // unchanged subtree
+        }
+        if (oldPackage.isSelected() != newPackage.isSelected() || oldPackage.isEmpty() != newPackage.isEmpty()) {
+            packagesChanged = true;
+        }
+        compareTypes(oldPackage.getTypes(), newPackage.getTypes());
+        Map<String, ExtractedPackage> oldSubpackages = new LinkedHashMap<String, ExtractedPackage>();
+        oldPackage.getSubpackages().forEach(subpackage -> oldSubpackages.put(subpackage.getFullName(), subpackage));
+        for (ExtractedPackage subpackage : newPackage.getSubpackages()) {
+            ExtractedPackage oldSubpackage = oldSubpackages.remove(subpackage.getFullName());
+            if (oldSubpackage == null) { // new package
+                packagesChanged = true;
+                collectTypes(subpackage, addedTypes);
+            } else {
+                comparePackages(oldSubpackage, subpackage);
+            }
+        }
+        for (ExtractedPackage subpackage : oldSubpackages.values()) { // removed packages
+            packagesChanged = true;
+            collectTypes(subpackage, removedTypes);
+        }
+    }
+
+    /**
+     * Compares the two versions of the types of a package by their full names and their content hashes.
+     */
+    private void compareTypes(List<ExtractedType> oldTypes, List<ExtractedType> newTypes) {
+        Map<String, ExtractedType> oldTypeIndex = new LinkedHashMap<String, ExtractedType>();
+        oldTypes.forEach(type -> oldTypeIndex.put(type.getFullName(), type));
+        for (ExtractedType type : newTypes) {
+            ExtractedType oldType = oldTypeIndex.remove(type.getFullName());
+            if (oldType == null || oldType.getClass() != type.getClass()) { // new or different kind
+                addedTypes.add(type);
+                if (oldType != null) {
+                    removedTypes.add(oldType);
+                }
+            } else if (oldType.getContentHash() != type.getContentHash()) {
+                changedTypes.add(type);
+            }
+        }
+        removedTypes.addAll(oldTypeIndex.values());
+    }
+
+    /**
+     * Finds the unchanged types of a model that reference an added or removed type.
+     */
+    private List<ExtractedType> findDependentTypes(IntermediateModel newModel) {
+        List<ExtractedType> dependents = new ArrayList<ExtractedType>();
+        Set<String> names = new HashSet<String>();
+        addedTypes.forEach(type -> names.add(type.getFullName()));
+        removedTypes.forEach(type -> names.add(type.getFullName()));
+        if (!names.isEmpty()) {
+            Set<ExtractedType> excluded = new HashSet<ExtractedType>(addedTypes);
+            excluded.addAll(changedTypes);
+            for (ExtractedType type : newModel.getTypes()) {
+                if (!excluded.contains(type) && !Collections.disjoint(collectReferences(type), names)) {
+                    dependents.add(type);
+                }
+            }
+        }
+        return dependents;
+    }
+}
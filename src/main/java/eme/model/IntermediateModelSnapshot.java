@@ -0,0 +1,467 @@
+package eme.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import eme.model.datatypes.AccessLevelModifier;
+import eme.model.datatypes.ExtractedDataType;
+import eme.model.datatypes.ExtractedField;
+import eme.model.datatypes.ExtractedParameter;
+import eme.model.datatypes.ExtractedTypeParameter;
+import eme.model.datatypes.WildcardStatus;
+
+/**
+ * Binary snapshots of {@link IntermediateModel}s, including the selection state of their packages and types. A
+ * snapshot allows to generate a metamodel again with different properties without extracting the project again. The
+ * format starts with a magic number and a version and is written and read in a single pass, which means snapshots can
+ * be streamed. Repeated strings like type names are written once and then referenced by their index. The format is
+ * also used to copy single types.
+ * @author Timur Saglam
+ */
+public final class IntermediateModelSnapshot {
+    private static final int MAGIC_NUMBER = 0x454D4531; // "EME1"
+    private static final int VERSION = 1;
+    private static final byte CLASS = 0;
+    private static final byte INTERFACE = 1;
+    private static final byte ENUM = 2;
+    private static final byte NULL = -1;
+    private final DataInputStream input;
+    private final DataOutputStream output;
+    private final List<String> readStrings;
+    private final Map<String, Integer> writtenStrings;
+
+    /**
+     * Private constructor, use the static methods.
+     */
+    private IntermediateModelSnapshot(DataInputStream input, DataOutputStream output) {
+        this.input = input;
+        this.output = output;
+        readStrings = new ArrayList<String>();
+        writtenStrings = new HashMap<String, Integer>();
+    }
+
+    /**
+     * Creates a deep copy of an {@link ExtractedType} with the snapshot format, including its selection state. The copy
+     * shares no mutable state with the original type, which is only read.
+     * @param type is the type to copy.
+     * @return the copy.
+     */
+    public static ExtractedType copy(ExtractedType type) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try {
+            DataOutputStream output = new DataOutputStream(buffer);
+            new IntermediateModelSnapshot(null, output).writeType(type);
+            output.writeBoolean(type.isSelected());
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(buffer.toByteArray()));
+            ExtractedType copy = new IntermediateModelSnapshot(input, null).readType();
+            copy.setSelected(input.readBoolean());
+            return copy;
+        } catch (IOException exception) { // in-memory streams do not fail
+            throw new IllegalStateException("Could not copy the type " + type, exception);
+        }
+    }
+
+    /**
+     * Reads an {@link IntermediateModel} from a snapshot file.
+     * @param file is the snapshot file.
+     * @return the model.
+     * @throws IOException if the file can not be read or is not a valid snapshot.
+     */
+    public static IntermediateModel read(File file) throws IOException {
+        try (InputStream stream = new BufferedInputStream(new FileInputStream(file))) {
+            return read(stream);
+        }
+    }
+
+    /**
+     * Reads an {@link IntermediateModel} from a stream. The stream is read exactly until the end of the snapshot and is
+     * not closed. It should be buffered.
+     * @param stream is the input stream.
+     * @return the model.
+     * @throws IOException if the stream can not be read or does not contain a valid snapshot.
+     */
+    public static IntermediateModel read(InputStream stream) throws IOException {
+        DataInputStream input = new DataInputStream(stream);
+        if (input.readInt() != MAGIC_NUMBER) {
+            throw new IOException("The stream does not contain an intermediate model snapshot.");
+        }
+        int version = input.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version + ", expected version " + VERSION);
+        }
+        return new IntermediateModelSnapshot(input, null).readModel();
+    }
+
+    /**
+     * Writes an {@link IntermediateModel} to a snapshot file.
+     * @param model is the model.
+     * @param file is the snapshot file, which is overwritten if it exists.
+     * @throws IOException if the file can not be written.
+     */
+    public static void write(IntermediateModel model, File file) throws IOException {
+        try (OutputStream stream = new FileOutputStream(file)) {
+            write(model, stream);
+        }
+    }
+
+    /**
+     * Writes an {@link IntermediateModel} to a stream. The stream is flushed but not closed.
+     * @param model is the model.
+     * @param stream is the output stream.
+     * @throws IOException if the stream can not be written.
+     */
+    public static void write(IntermediateModel model, OutputStream stream) throws IOException {
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream));
+        output.writeInt(MAGIC_NUMBER);
+        output.writeInt(VERSION);
+        new IntermediateModelSnapshot(null, output).writeModel(model);
+        output.flush();
+    }
+
+    /**
+     * Collects the packages of the model in pre-order, which means parents come before their subpackages.
+     */
+    private void collectPackages(ExtractedPackage extractedPackage, List<ExtractedPackage> packages) {
+        packages.add(extractedPackage);
+        for (ExtractedPackage subpackage : extractedPackage.getSubpackages()) {
+            collectPackages(subpackage, packages);
+        }
+    }
+
+    /**
+     * Reads the content of a data type, a field or a parameter after its name and array dimension.
+     */
+    private <T extends ExtractedDataType> T readContent(T dataType) throws IOException {
+        dataType.setWildcardStatus(WildcardStatus.values()[input.readByte()]);
+        int interfaces = input.readInt();
+        for (int i = 0; i < interfaces; i++) {
+            dataType.addInterface(readString());
+        }
+        dataType.setGenericArguments(readDataTypes());
+        return dataType;
+    }
+
+    /**
+     * Reads a data type that might be null.
+     */
+    private ExtractedDataType readDataType() throws IOException {
+        String fullName = readString();
+        return fullName == null ? null : readContent(new ExtractedDataType(fullName, input.readInt()));
+    }
+
+    /**
+     * Reads a list of data types.
+     */
+    private List<ExtractedDataType> readDataTypes() throws IOException {
+        int size = input.readInt();
+        List<ExtractedDataType> dataTypes = new LinkedList<ExtractedDataType>();
+        for (int i = 0; i < size; i++) {
+            dataTypes.add(readDataType());
+        }
+        return dataTypes;
+    }
+
+    /**
+     * Reads a method of a type.
+     */
+    private ExtractedMethod readMethod() throws IOException {
+        ExtractedMethod method = new ExtractedMethod(readString(), readDataType());
+        method.setModifier(AccessLevelModifier.values()[input.readByte()]);
+        method.setMethodType(MethodType.values()[input.readByte()]);
+        method.setAbstract(input.readBoolean());
+        method.setStatic(input.readBoolean());
+        method.setTypeParameters(readTypeParameters());
+        int parameters = input.readInt();
+        for (int i = 0; i < parameters; i++) {
+            String identifier = readString();
+            method.addParameter(readContent(new ExtractedParameter(identifier, readString(), input.readInt())));
+        }
+        for (ExtractedDataType exception : readDataTypes()) {
+            method.addThrowsDeclaration(exception);
+        }
+        return method;
+    }
+
+    /**
+     * Reads the complete model after the header.
+     */
+    private IntermediateModel readModel() throws IOException {
+        IntermediateModel model = new IntermediateModel(readString());
+        int packageCount = input.readInt();
+        List<ExtractedPackage> packages = new ArrayList<ExtractedPackage>(packageCount);
+        boolean[] packageSelection = new boolean[packageCount];
+        for (int i = 0; i < packageCount; i++) {
+            ExtractedPackage extractedPackage = new ExtractedPackage(readString());
+            packageSelection[i] = input.readBoolean();
+            model.add(extractedPackage); // parents are always read first
+            packages.add(extractedPackage);
+        }
+        int typeCount = input.readInt();
+        List<ExtractedType> types = new ArrayList<ExtractedType>(typeCount);
+        for (int i = 0; i < typeCount; i++) {
+            ExtractedPackage parent = packages.get(input.readInt());
+            ExtractedType type = readType();
+            model.addTo(type, parent);
+            types.add(type);
+        }
+        int externalCount = input.readInt();
+        for (int i = 0; i < externalCount; i++) {
+            model.addExternal(readType());
+        }
+        for (int i = 0; i < packageCount; i++) { // pre-order, subpackages override the selection of their parents
+            packages.get(i).setSelected(packageSelection[i]);
+        }
+        for (ExtractedType type : types) {
+            type.setSelected(input.readBoolean());
+        }
+        return model;
+    }
+
+    /**
+     * Reads a string that is either new or a reference to an already read string.
+     */
+    private String readString() throws IOException {
+        int index = input.readInt();
+        if (index == NULL) {
+            return null;
+        } else if (index == readStrings.size()) { // new string
+            readStrings.add(input.readUTF());
+        }
+        return readStrings.get(index);
+    }
+
+    /**
+     * Reads a type with its members.
+     */
+    private ExtractedType readType() throws IOException {
+        byte kind = input.readByte();
+        String fullName = readString();
+        ExtractedType type;
+        if (kind == CLASS) {
+            ExtractedClass extractedClass = new ExtractedClass(fullName, input.readBoolean(), input.readBoolean());
+            extractedClass.setSuperClass(readDataType());
+            type = extractedClass;
+        } else if (kind == INTERFACE) {
+            type = new ExtractedInterface(fullName);
+        } else if (kind == ENUM) {
+            ExtractedEnum extractedEnum = new ExtractedEnum(fullName);
+            int constants = input.readInt();
+            for (int i = 0; i < constants; i++) {
+                extractedEnum.addConstant(new ExtractedEnumConstant(readString()));
+            }
+            type = extractedEnum;
+        } else {
+            throw new IOException("Invalid type kind " + kind + " of " + fullName);
+        }
+        type.setOuterType(readString());
+        type.setTypeParameters(readTypeParameters());
+        for (ExtractedDataType superInterface : readDataTypes()) {
+            type.addInterface(superInterface);
+        }
+        int fields = input.readInt();
+        for (int i = 0; i < fields; i++) {
+            String identifier = readString();
+            ExtractedField field = new ExtractedField(identifier, readString(), input.readInt());
+            field.setModifier(AccessLevelModifier.values()[input.readByte()]);
+            field.setStatic(input.readBoolean());
+            field.setFinal(input.readBoolean());
+            type.addField(readContent(field));
+        }
+        int methods = input.readInt();
+        for (int i = 0; i < methods; i++) {
+            type.addMethod(readMethod());
+        }
+        return type;
+    }
+
+    /**
+     * Reads a list of type parameters.
+     */
+    private List<ExtractedTypeParameter> readTypeParameters() throws IOException {
+        int size = input.readInt();
+        List<ExtractedTypeParameter> typeParameters = new LinkedList<ExtractedTypeParameter>();
+        for (int i = 0; i < size; i++) {
+            ExtractedTypeParameter typeParameter = new ExtractedTypeParameter(readString());
+            for (ExtractedDataType bound : readDataTypes()) {
+                typeParameter.add(bound);
+            }
+            typeParameters.add(typeParameter);
+        }
+        return typeParameters;
+    }
+
+    /**
+     * Writes the content of a data type, a field or a parameter after its name and array dimension.
+     */
+    private void writeContent(ExtractedDataType dataType) throws IOException {
+        output.writeByte(dataType.getWildcardStatus().ordinal());
+        output.writeInt(dataType.getInterfaces().size());
+        for (String superInterface : dataType.getInterfaces()) {
+            writeString(superInterface);
+        }
+        writeDataTypes(dataType.getGenericArguments());
+    }
+
+    /**
+     * Writes a data type that might be null.
+     */
+    private void writeDataType(ExtractedDataType dataType) throws IOException {
+        if (dataType == null) {
+            writeString(null);
+        } else {
+            writeString(dataType.getFullArrayType());
+            output.writeInt(dataType.getArrayDimension());
+            writeContent(dataType);
+        }
+    }
+
+    /**
+     * Writes a list of data types.
+     */
+    private void writeDataTypes(List<ExtractedDataType> dataTypes) throws IOException {
+        output.writeInt(dataTypes.size());
+        for (ExtractedDataType dataType : dataTypes) {
+            writeDataType(dataType);
+        }
+    }
+
+    /**
+     * Writes a method of a type.
+     */
+    private void writeMethod(ExtractedMethod method) throws IOException {
+        writeString(method.getFullName());
+        writeDataType(method.getReturnType());
+        output.writeByte(method.getModifier().ordinal());
+        output.writeByte(method.getMethodType().ordinal());
+        output.writeBoolean(method.isAbstract());
+        output.writeBoolean(method.isStatic());
+        writeTypeParameters(method.getTypeParameters());
+        output.writeInt(method.getParameters().size());
+        for (ExtractedParameter parameter : method.getParameters()) {
+            writeString(parameter.getIdentifier());
+            writeString(parameter.getFullArrayType());
+            output.writeInt(parameter.getArrayDimension());
+            writeContent(parameter);
+        }
+        writeDataTypes(method.getThrowsDeclarations());
+    }
+
+    /**
+     * Writes the complete model after the header. The selection state is written last, because restoring the
+     * selection of a package changes the selection of its content.
+     */
+    private void writeModel(IntermediateModel model) throws IOException {
+        writeString(model.getProjectName());
+        List<ExtractedPackage> packages = new ArrayList<ExtractedPackage>();
+        if (model.getRoot() != null) {
+            collectPackages(model.getRoot(), packages);
+        }
+        Map<ExtractedType, Integer> packageIndices = new HashMap<ExtractedType, Integer>();
+        output.writeInt(packages.size());
+        for (int i = 0; i < packages.size(); i++) {
+            writeString(packages.get(i).getFullName());
+            output.writeBoolean(packages.get(i).isSelected());
+            for (ExtractedType type : packages.get(i).getTypes()) {
+                packageIndices.put(type, i);
+            }
+        }
+        output.writeInt(model.getTypes().size());
+        for (ExtractedType type : model.getTypes()) {
+            output.writeInt(packageIndices.get(type));
+            writeType(type);
+        }
+        output.writeInt(model.getExternalTypes().size());
+        for (ExtractedType type : model.getExternalTypes()) {
+            writeType(type);
+        }
+        for (ExtractedType type : model.getTypes()) {
+            output.writeBoolean(type.isSelected());
+        }
+    }
+
+    /**
+     * Writes a string or a reference to the already written equal string.
+     */
+    private void writeString(String string) throws IOException {
+        if (string == null) {
+            output.writeInt(NULL);
+            return;
+        }
+        Integer index = writtenStrings.get(string);
+        if (index == null) { // new string
+            output.writeInt(writtenStrings.size());
+            output.writeUTF(string);
+            writtenStrings.put(string, writtenStrings.size());
+        } else {
+            output.writeInt(index);
+        }
+    }
+
+    /**
+     * Writes a type with its members.
+     */
+    private void writeType(ExtractedType type) throws IOException {
+        if (type instanceof ExtractedClass) {
+            ExtractedClass extractedClass = (ExtractedClass) type;
+            output.writeByte(CLASS);
+            writeString(type.getFullName());
+            output.writeBoolean(extractedClass.isAbstract());
+            output.writeBoolean(extractedClass.isThrowable());
+            writeDataType(extractedClass.getSuperClass());
+        } else if (type instanceof ExtractedInterface) {
+            output.writeByte(INTERFACE);
+            writeString(type.getFullName());
+        } else {
+            output.writeByte(ENUM);
+            writeString(type.getFullName());
+            List<ExtractedEnumConstant> constants = ((ExtractedEnum) type).getConstants();
+            output.writeInt(constants.size());
+            for (ExtractedEnumConstant constant : constants) {
+                writeString(constant.getName());
+            }
+        }
+        writeString(type.getOuterType());
+        writeTypeParameters(type.getTypeParameters());
+        writeDataTypes(type.getSuperInterfaces());
+        output.writeInt(type.getFields().size());
+        for (ExtractedField field : type.getFields()) {
+            writeString(field.getIdentifier());
+            writeString(field.getFullArrayType());
+            output.writeInt(field.getArrayDimension());
+            output.writeByte(field.getModifier().ordinal());
+            output.writeBoolean(field.isStatic());
+            output.writeBoolean(field.isFinal());
+            writeContent(field);
+        }
+        output.writeInt(type.getMethods().size());
+        for (ExtractedMethod method : type.getMethods()) {
+            writeMethod(method);
+        }
+    }
+
+    /**
+     * Writes a list of type parameters.
+     */
+    private void writeTypeParameters(List<ExtractedTypeParameter> typeParameters) throws IOException {
+        output.writeInt(typeParameters.size());
+        for (ExtractedTypeParameter typeParameter : typeParameters) {
+            writeString(typeParameter.getIdentifier());
+            writeDataTypes(typeParameter.getBounds());
+        }
+    }
+}
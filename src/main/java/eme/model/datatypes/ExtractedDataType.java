@@ -1,11 +1,10 @@
 package eme.model.datatypes;
 
-import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 import eme.model.IntermediateModel;
-import eme.properties.TextProperty;
 
 /**
  * Represents a data type in the {@link IntermediateModel}.
@@ -126,18 +125,21 @@ public class ExtractedDataType {
 
     /**
      * Checks whether the data type is a list type, which means it is of type
-     * {@link List}.
+     * {@link List} or has one of the list interfaces as super interface. In both
+     * cases it needs exactly one generic argument.
+     * @param listInterfaces is the set of full names of the list interfaces.
      * @return true if it is.
      */
-    public boolean isListType() {
-    	String[] it = TextProperty.DATATYPE_INTERFACES_TO_CONVERT_TO_EREFERENCE.getDefaultValue().split(", ");
-			for(String i : superInterfaces) {
-				if(Arrays.stream(it).anyMatch(i::equals) && genericArguments.size() == 1) {
-					return true;
-	    		}
-			} 
-		
-        return List.class.getName().equals(fullTypeName) && genericArguments.size() == 1;
+    public boolean isListType(Set<String> listInterfaces) {
+        if (genericArguments.size() != 1) {
+            return false;
+        }
+        for (String superInterface : superInterfaces) {
+            if (listInterfaces.contains(superInterface)) {
+                return true;
+            }
+        }
+        return List.class.getName().equals(fullTypeName);
     }
 
     /**
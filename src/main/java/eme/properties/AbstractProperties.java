@@ -52,6 +52,26 @@ public class AbstractProperties<T extends ITextProperty, B extends IBinaryProper
         }
     }
 
+    /**
+     * Constructor for properties that are not backed by a properties file. They start with the default values and can
+     * not be saved, which allows to use them without a running Eclipse platform.
+     * @param fileComment is the description in the property file.
+     */
+    protected AbstractProperties(String fileComment) {
+        this.fileComment = fileComment;
+        properties = new Properties();
+    }
+
+    /**
+     * Copy constructor, creates an independent copy of the current settings. The copy uses the same properties file.
+     * @param original are the properties to copy.
+     */
+    protected AbstractProperties(AbstractProperties<T, B> original) {
+        fileComment = original.fileComment;
+        fileURL = original.fileURL;
+        properties = (Properties) original.properties.clone(); // clone is synchronized
+    }
+
     /**
      * Accessor method for binary properties.
      * @param property is the {@link IBinaryProperty}.
@@ -74,6 +94,10 @@ public class AbstractProperties<T extends ITextProperty, B extends IBinaryProper
      * Saves the settings to the properties file.
      */
     public void save() {
+        if (fileURL == null) {
+            logger.warn("Properties without a properties file can not be saved.");
+            return;
+        }
         try {
             OutputStream out = fileURL.openConnection().getOutputStream(); // create output stream
             properties.store(out, fileComment); // store with stream
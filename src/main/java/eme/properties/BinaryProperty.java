@@ -30,7 +30,12 @@ public enum BinaryProperty implements IBinaryProperty {
     FIELD_MULTIPLICITIES("FieldMultiplicities", true),
     PARAMETER_MULTIPLICITIES("ParameterMultiplicities", true),
     RETURN_TYPE_MULTIPLICITIES("ReturnTypeMultiplicities", true),
-    CUSTOM_EXTRACTION_SCOPE("CustomExtractionScope", true);
+    CUSTOM_EXTRACTION_SCOPE("CustomExtractionScope", true),
+    BOUNDED_MEMORY("BoundedMemoryTraversal", false),
+    JAVA_CODE("GenerateJavaCode", false),
+    BULK_GENERATION("BulkGeneration", false),
+    MODEL_SNAPSHOT("SaveModelSnapshot", false),
+    INCREMENTAL_UPDATE("IncrementalUpdate", false);
 
     private final boolean defaultValue;
     private final String key;
@@ -11,4 +11,36 @@ public class ExtractionProperties extends AbstractProperties<TextProperty, Binar
     public ExtractionProperties() {
         super("user.properties", "Use this file to configure the Ecore metamodel extraction.", "EcoreMetamodelExtraction");
     }
+
+    /**
+     * Private constructor for in-memory properties.
+     */
+    private ExtractionProperties(String fileComment) {
+        super(fileComment);
+    }
+
+    /**
+     * Private copy constructor for snapshots.
+     */
+    private ExtractionProperties(ExtractionProperties original) {
+        super(original);
+    }
+
+    /**
+     * Creates a snapshot of the current settings. Later changes of these properties do not affect the snapshot, which
+     * makes it safe to read the snapshot during a running extraction.
+     * @return the snapshot.
+     */
+    public ExtractionProperties snapshot() {
+        return new ExtractionProperties(this);
+    }
+
+    /**
+     * Creates properties with the default values that are not backed by the properties file of the plugin. They can
+     * be used without a running Eclipse platform, e.g. for benchmarks.
+     * @return the in-memory properties.
+     */
+    public static ExtractionProperties createDefaults() {
+        return new ExtractionProperties("In-memory extraction properties.");
+    }
 }
@@ -12,9 +12,10 @@ public enum TextProperty implements ITextProperty {
     NESTED_TYPE_PACKAGE("NestedTypePackageSuffix", "InnerTypes"),
     PROJECT_SUFFIX("ProjectSuffix", "Model"),
     DATATYPES_TO_CONVERT_TO_EREFERENCE("DatatypesToConvertToEReference", "java.util.HashSet, java.util.ArrayList, "
-    		+ "java.util.LinkedList, java.util.TreeSet, java.util.HashMap, java.util.TreeMap"),
-    DATATYPE_INTERFACES_TO_CONVERT_TO_EREFERENCE("DatatypesToConvertToEReference", "java.util.Set, java.util.List"),
-    SAVING_STRATEGY("SavingStrategy", "NewProject");
+            + "java.util.LinkedList, java.util.TreeSet, java.util.HashMap, java.util.TreeMap"),
+    DATATYPE_INTERFACES_TO_CONVERT_TO_EREFERENCE("DatatypeInterfacesToConvertToEReference", "java.util.Set, java.util.List"),
+    SAVING_STRATEGY("SavingStrategy", "NewProject"),
+    JAVA_CODE_DIRECTORY("JavaCodeDirectory", "JavaCode");
 	
 
     private final String defaultValue;